@@ -1,5 +1,7 @@
 import org.gradle.api.tasks.testing.logging.TestExceptionFormat
 import org.gradle.api.tasks.testing.logging.TestLogEvent
+import java.util.zip.Deflater
+import java.util.zip.GZIPOutputStream
 
 plugins {
     java
@@ -32,6 +34,7 @@ dependencies {
     implementation("org.springframework.boot:spring-boot-starter-data-jpa")
     implementation("org.springframework.boot:spring-boot-starter-validation")
     implementation("org.springframework.boot:spring-boot-starter-security")
+    implementation("org.springframework.boot:spring-boot-starter-actuator")
     implementation("io.jsonwebtoken:jjwt-api:0.11.5")
     implementation("io.jsonwebtoken:jjwt-impl:0.11.5")
     implementation("io.jsonwebtoken:jjwt-jackson:0.11.5")
@@ -39,6 +42,7 @@ dependencies {
     implementation("org.openapitools:jackson-databind-nullable:0.2.8")
     implementation("org.springdoc:springdoc-openapi-starter-webmvc-ui:2.4.0")
     implementation("net.datafaker:datafaker:2.1.0")
+    implementation("org.roaringbitmap:RoaringBitmap:1.3.0")
     annotationProcessor("org.mapstruct:mapstruct-processor:1.6.3")
     annotationProcessor("org.projectlombok:lombok")
     testImplementation("org.springframework.boot:spring-boot-starter-test")
@@ -48,6 +52,24 @@ dependencies {
     runtimeOnly("org.postgresql:postgresql")
 }
 
+tasks.processResources {
+    // Pre-compress the SPA bundle so it is served as-is with Content-Encoding: gzip
+    doLast {
+        fileTree(destinationDir) {
+            include("static/**/*.js", "static/**/*.css", "static/**/*.html", "public/**/*.html")
+        }.forEach { source ->
+            val target = File(source.path + ".gz")
+            target.outputStream().use { fileOut ->
+                object : GZIPOutputStream(fileOut) {
+                    init {
+                        def.setLevel(Deflater.BEST_COMPRESSION)
+                    }
+                }.use { gzipOut -> source.inputStream().use { it.copyTo(gzipOut) } }
+            }
+        }
+    }
+}
+
 tasks.test {
     useJUnitPlatform()
     testLogging {
@@ -0,0 +1,66 @@
+package hexlet.code.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class ConnectionHoldTimeConfig {
+
+    // Static so that it does not pull this configuration, or the tracker, into early initialization.
+    // Installs the same Micrometer tracker Spring Boot would (which then leaves the pool alone), so the hikaricp.*
+    // metrics stay as they are and connection usage also adds up per request
+    @Bean
+    public static BeanPostProcessor connectionHoldTimePostProcessor(ObjectProvider<MeterRegistry> meterRegistry,
+                                                                    ObjectProvider<ConnectionHoldTracker> tracker) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof HikariDataSource dataSource
+                        && dataSource.getMetricRegistry() == null
+                        && dataSource.getMetricsTrackerFactory() == null) {
+                    dataSource.setMetricsTrackerFactory((poolName, poolStats) -> new HoldTimeMetricsTracker(
+                            new MicrometerMetricsTrackerFactory(meterRegistry.getObject()).create(poolName, poolStats),
+                            tracker));
+                }
+                return bean;
+            }
+        };
+    }
+
+    // Hikari reports the usage from the thread that closes the connection, which is the request's own thread
+    private record HoldTimeMetricsTracker(IMetricsTracker delegate, ObjectProvider<ConnectionHoldTracker> tracker)
+            implements IMetricsTracker {
+
+        @Override
+        public void recordConnectionCreatedMillis(long connectionCreatedMillis) {
+            delegate.recordConnectionCreatedMillis(connectionCreatedMillis);
+        }
+
+        @Override
+        public void recordConnectionAcquiredNanos(long elapsedAcquiredNanos) {
+            delegate.recordConnectionAcquiredNanos(elapsedAcquiredNanos);
+        }
+
+        @Override
+        public void recordConnectionUsageMillis(long elapsedBorrowedMillis) {
+            delegate.recordConnectionUsageMillis(elapsedBorrowedMillis);
+            tracker.ifAvailable(t -> t.released(elapsedBorrowedMillis));
+        }
+
+        @Override
+        public void recordConnectionTimeout() {
+            delegate.recordConnectionTimeout();
+        }
+
+        @Override
+        public void close() {
+            delegate.close();
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package hexlet.code.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+// Sums how long JDBC connections stay checked out per HTTP request (hikaricp.connections.usage has the per checkout
+// times), so the pool can be sized from real hold times: pool size ~ requests per second x hold time per request
+@Component
+public class ConnectionHoldTracker {
+
+    private static final ThreadLocal<RequestHold> CURRENT = new ThreadLocal<>();
+
+    private final MeterRegistry meterRegistry;
+
+    public ConnectionHoldTracker(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    public void beginRequest() {
+        CURRENT.set(new RequestHold());
+    }
+
+    // Requests that never touched the database are not recorded
+    public void endRequest(String method, String uri) {
+        RequestHold hold = CURRENT.get();
+        CURRENT.remove();
+        if (hold == null || hold.checkouts == 0) {
+            return;
+        }
+        Timer.builder("http.server.requests.connection.hold")
+                .description("Total time a request held JDBC connections")
+                .tag("method", method)
+                .tag("uri", uri)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(hold.millis, TimeUnit.MILLISECONDS);
+        meterRegistry.summary("http.server.requests.connection.checkouts", "method", method, "uri", uri)
+                .record(hold.checkouts);
+    }
+
+    void released(long heldMillis) {
+        RequestHold hold = CURRENT.get();
+        if (hold != null) {
+            hold.millis += heldMillis;
+            hold.checkouts++;
+        }
+    }
+
+    private static final class RequestHold {
+        private long millis;
+        private int checkouts;
+    }
+}
@@ -1,7 +1,11 @@
 package hexlet.code.config;
 
 import hexlet.code.filter.JwtAuthenticationFilter;
+import hexlet.code.filter.RateLimitFilter;
+import hexlet.code.service.AdaptiveBCryptPasswordEncoder;
+import hexlet.code.service.RateLimitService;
 import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Profile;
@@ -15,22 +19,40 @@ import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.core.userdetails.UserDetailsService;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
+import java.time.Duration;
+import java.util.Map;
+
 @Configuration
 @EnableWebSecurity
 @EnableMethodSecurity()
 public class SecurityConfig {
 
+    private static final String BCRYPT_ID = "bcrypt";
+
     private final JwtAuthenticationFilter jwtAuthFilter;
     private final UserDetailsService userDetailsService;
-    
-    public SecurityConfig(JwtAuthenticationFilter jwtAuthFilter, UserDetailsService userDetailsService) {
+    private final RateLimitService rateLimitService;
+    private final boolean rateLimitEnabled;
+    private final int bcryptStrength;
+    private final Duration bcryptTargetTime;
+
+    public SecurityConfig(JwtAuthenticationFilter jwtAuthFilter, UserDetailsService userDetailsService,
+                          RateLimitService rateLimitService,
+                          @Value("${rate-limit.enabled:true}") boolean rateLimitEnabled,
+                          @Value("${security.bcrypt.strength:10}") int bcryptStrength,
+                          @Value("${security.bcrypt.target-verify-time:PT0.25S}") Duration bcryptTargetTime) {
         this.jwtAuthFilter = jwtAuthFilter;
         this.userDetailsService = userDetailsService;
+        this.rateLimitService = rateLimitService;
+        this.rateLimitEnabled = rateLimitEnabled;
+        this.bcryptStrength = bcryptStrength;
+        this.bcryptTargetTime = bcryptTargetTime;
     }
 
     @Bean
@@ -43,6 +65,7 @@ public class SecurityConfig {
                         .requestMatchers("/swagger-ui/**", "/v3/api-docs/**").permitAll()
                         .requestMatchers("/h2-console/**").permitAll()
                         .requestMatchers(HttpMethod.POST, "/api/login").permitAll()
+                        .requestMatchers(HttpMethod.POST, "/api/refresh").permitAll()
                         .requestMatchers(HttpMethod.POST, "/api/users").permitAll()
                         .requestMatchers(HttpMethod.GET, "/api/task_statuses/**").permitAll()
                         .anyRequest().authenticated()
@@ -55,6 +78,9 @@ public class SecurityConfig {
                 ))
                 .headers(headers -> headers.frameOptions(frame -> frame.disable()));
 
+        if (rateLimitEnabled) {
+            http.addFilterAfter(new RateLimitFilter(rateLimitService), JwtAuthenticationFilter.class);
+        }
         return http.build();
     }
 
@@ -63,12 +89,25 @@ public class SecurityConfig {
         DaoAuthenticationProvider provider = new DaoAuthenticationProvider();
         provider.setUserDetailsService(userDetailsService);
         provider.setPasswordEncoder(passwordEncoder());
+        if (userDetailsService instanceof UserDetailsPasswordService userDetailsPasswordService) {
+            // Stores the re-hashed password after a successful login when the encoder asks for an upgrade
+            provider.setUserDetailsPasswordService(userDetailsPasswordService);
+        }
         return provider;
     }
 
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+        // A strength of 0 means: measure this machine and pick the cost that meets the target time
+        int strength = bcryptStrength > 0
+                ? bcryptStrength
+                : AdaptiveBCryptPasswordEncoder.calibrate(bcryptTargetTime, 10, AdaptiveBCryptPasswordEncoder.MAX_STRENGTH);
+        PasswordEncoder bcrypt = new AdaptiveBCryptPasswordEncoder(strength);
+
+        DelegatingPasswordEncoder encoder = new DelegatingPasswordEncoder(BCRYPT_ID, Map.of(BCRYPT_ID, bcrypt));
+        // Hashes stored before the {bcrypt} prefix was introduced still verify and get re-hashed on login
+        encoder.setDefaultPasswordEncoderForMatches(bcrypt);
+        return encoder;
     }
 
     @Bean
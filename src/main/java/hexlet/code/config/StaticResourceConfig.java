@@ -0,0 +1,34 @@
+package hexlet.code.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.CacheControl;
+import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.resource.EncodedResourceResolver;
+
+import java.util.concurrent.TimeUnit;
+
+@Configuration
+public class StaticResourceConfig implements WebMvcConfigurer {
+
+    private static final long ASSETS_MAX_AGE_DAYS = 365;
+
+    @Override
+    public void addResourceHandlers(ResourceHandlerRegistry registry) {
+        // Bundle file names are content-hashed, so they can be cached forever
+        registry.addResourceHandler("/assets/**")
+                .addResourceLocations("classpath:/static/assets/")
+                .setCacheControl(CacheControl.maxAge(ASSETS_MAX_AGE_DAYS, TimeUnit.DAYS)
+                        .cachePublic()
+                        .immutable())
+                .resourceChain(true)
+                .addResolver(new EncodedResourceResolver());
+
+        // index.html references the current bundle and must always be revalidated
+        registry.addResourceHandler("/index.html")
+                .addResourceLocations("classpath:/public/")
+                .setCacheControl(CacheControl.noCache())
+                .resourceChain(true)
+                .addResolver(new EncodedResourceResolver());
+    }
+}
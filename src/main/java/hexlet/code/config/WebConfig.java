@@ -19,7 +19,8 @@ public class WebConfig {
                         .allowedOrigins("*")
                         .allowedMethods("*")
                         .allowedHeaders("*")
-                        .exposedHeaders("X-Total-Count");
+                        .exposedHeaders("X-Total-Count", "X-Next-Cursor", "Idempotent-Replayed", "ETag",
+                                "X-Refresh-Token", "Age");
             }
         };
     }
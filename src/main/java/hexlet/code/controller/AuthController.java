@@ -1,13 +1,23 @@
 package hexlet.code.controller;
 
 import hexlet.code.dto.LoginRequestDTO;
+import hexlet.code.dto.RefreshRequestDTO;
+import hexlet.code.dto.TokenPairDTO;
+import hexlet.code.exception.TooManyRequestsException;
 import hexlet.code.service.JwtService;
+import hexlet.code.service.LoginAttemptService;
+import hexlet.code.service.RefreshTokenService;
+import hexlet.code.service.TokenRevocationService;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -17,26 +27,84 @@ import org.springframework.web.bind.annotation.RestController;
 @RequestMapping("/api")
 public class AuthController {
 
+    public static final String REFRESH_TOKEN_HEADER = "X-Refresh-Token";
+
     private final AuthenticationManager authenticationManager;
     private final JwtService jwtService;
-    
-    public AuthController(AuthenticationManager authenticationManager, JwtService jwtService) {
+    private final LoginAttemptService loginAttemptService;
+    private final RefreshTokenService refreshTokenService;
+    private final TokenRevocationService tokenRevocationService;
+
+    public AuthController(AuthenticationManager authenticationManager, JwtService jwtService,
+                          LoginAttemptService loginAttemptService, RefreshTokenService refreshTokenService,
+                          TokenRevocationService tokenRevocationService) {
         this.authenticationManager = authenticationManager;
         this.jwtService = jwtService;
+        this.loginAttemptService = loginAttemptService;
+        this.refreshTokenService = refreshTokenService;
+        this.tokenRevocationService = tokenRevocationService;
     }
 
     @PostMapping("/login")
-    public ResponseEntity<String> login(@Valid @RequestBody LoginRequestDTO loginRequest) {
-        Authentication authentication = authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(
-                        loginRequest.getUsername(),
-                        loginRequest.getPassword()
-                )
-        );
+    public ResponseEntity<String> login(@Valid @RequestBody LoginRequestDTO loginRequest, HttpServletRequest request) {
+        String ip = request.getRemoteAddr();
+        // Checked before the user lookup and bcrypt verification, which are what an attacker wants us to spend
+        long waitMs = loginAttemptService.checkAllowed(loginRequest.getUsername(), ip);
+        if (waitMs > 0) {
+            throw new TooManyRequestsException("Too many failed login attempts", (waitMs + 999) / 1000);
+        }
+
+        Authentication authentication;
+        try {
+            authentication = authenticationManager.authenticate(
+                    new UsernamePasswordAuthenticationToken(
+                            loginRequest.getUsername(),
+                            loginRequest.getPassword()
+                    )
+            );
+        } catch (AuthenticationException e) {
+            loginAttemptService.recordFailure(loginRequest.getUsername(), ip);
+            throw e;
+        }
+        loginAttemptService.recordSuccess(loginRequest.getUsername(), ip);
 
         UserDetails userDetails = (UserDetails) authentication.getPrincipal();
         String token = jwtService.generateToken(userDetails);
-        
-        return ResponseEntity.ok(token);
+
+        // The body stays the bare access token for existing clients; the refresh token travels in a header
+        return ResponseEntity.ok()
+                .header(REFRESH_TOKEN_HEADER, refreshTokenService.issue(userDetails.getUsername()))
+                .body(token);
+    }
+
+    @PostMapping("/refresh")
+    public TokenPairDTO refresh(@Valid @RequestBody RefreshRequestDTO refreshRequest) {
+        return refreshTokenService.refresh(refreshRequest.getRefreshToken());
+    }
+
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout(@RequestBody(required = false) RefreshRequestDTO refreshRequest,
+                                       HttpServletRequest request, Authentication authentication) {
+        if (refreshRequest != null && refreshRequest.getRefreshToken() != null) {
+            refreshTokenService.revoke(refreshRequest.getRefreshToken(), authentication.getName());
+        }
+        revokeAccessToken(request);
+        return ResponseEntity.noContent().build();
+    }
+
+    // Signs the user out everywhere: every refresh token goes, and so does the access token used for this call
+    @DeleteMapping("/tokens")
+    public ResponseEntity<Void> revokeAll(HttpServletRequest request, Authentication authentication) {
+        refreshTokenService.revokeAll(authentication.getName());
+        revokeAccessToken(request);
+        return ResponseEntity.noContent().build();
+    }
+
+    private void revokeAccessToken(HttpServletRequest request) {
+        String authHeader = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (authHeader != null && authHeader.startsWith("Bearer ")) {
+            String jwt = authHeader.substring(7);
+            tokenRevocationService.revoke(jwtService.extractTokenId(jwt), jwtService.extractExpiration(jwt).toInstant());
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,33 @@
+package hexlet.code.controller;
+
+import hexlet.code.dto.BoardDTO;
+import hexlet.code.dto.TaskView;
+import hexlet.code.service.BoardService;
+import hexlet.code.service.TaskQueryCoalescer;
+import lombok.AllArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/board")
+@AllArgsConstructor
+public class BoardController {
+
+    private final BoardService boardService;
+
+    @GetMapping
+    public ResponseEntity<BoardDTO> getBoard(
+            @RequestParam(required = false) String titleCont,
+            @RequestParam(required = false) Long assigneeId,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) Long labelId,
+            @RequestParam(required = false) String view) {
+
+        TaskQueryCoalescer.Result<BoardDTO> board = boardService.getBoard(titleCont, assigneeId, status, labelId,
+                TaskView.SUMMARY.matches(view));
+        return StaleResults.ok(board).body(board.value());
+    }
+}
@@ -2,9 +2,13 @@ package hexlet.code.controller;
 
 import hexlet.code.dto.LabelCreateDTO;
 import hexlet.code.dto.LabelDTO;
+import hexlet.code.dto.LabelSuggestionDTO;
 import hexlet.code.service.LabelService;
 import hexlet.code.service.LabelServiceImpl;
+import hexlet.code.service.SuggestIndex;
 import jakarta.validation.Valid;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
@@ -15,33 +19,54 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.util.List;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/api/labels")
 public class LabelController {
 
+    private static final Set<String> SORT_KEYS = Set.of("id", "name", "createdAt");
+    private static final int MAX_SUGGESTIONS = 50;
+
     private final LabelService labelService;
+    private final SuggestIndex suggestIndex;
 
-    public LabelController(LabelServiceImpl labelService) {
+    public LabelController(LabelServiceImpl labelService, SuggestIndex suggestIndex) {
         this.labelService = labelService;
+        this.suggestIndex = suggestIndex;
     }
 
     @GetMapping
-    public ResponseEntity<List<LabelDTO>> getAllLabels() {
-        List<LabelDTO> labels = labelService.getAllLabels();
-        return ResponseEntity.ok()
-                .header("X-Total-Count", String.valueOf(labels.size()))
-                .body(labels);
+    public ResponseEntity<List<?>> getAllLabels(
+            @RequestParam(name = "_start", required = false) Integer start,
+            @RequestParam(name = "_end", required = false) Integer end,
+            @RequestParam(name = "_sort", required = false) String sort,
+            @RequestParam(name = "_order", required = false) String order,
+            @RequestParam(name = "id", required = false) List<Long> ids,
+            @RequestParam(required = false) String fields) {
+        Set<String> selected = SparseFields.parse(fields, LabelDTO.class);
+        Pageable pageable = Pagination.of(start, end, sort, order, SORT_KEYS);
+        return Pagination.ok(labelService.getAllLabels(ids, selected, pageable), selected);
+    }
+
+    @GetMapping("/suggest")
+    public List<LabelSuggestionDTO> suggestLabels(
+            @RequestParam(defaultValue = "") String q,
+            @RequestParam(defaultValue = "10") int limit) {
+        return suggestIndex.suggestLabels(q, Math.clamp(limit, 1, MAX_SUGGESTIONS));
     }
 
     @GetMapping("/{id}")
-    public LabelDTO getLabelById(@PathVariable Long id) {
-        return labelService.getLabelById(id);
+    public ResponseEntity<LabelDTO> getLabelById(@PathVariable Long id) {
+        LabelDTO label = labelService.getLabelById(id);
+        return ResponseEntity.ok().eTag(ETags.of(label.getVersion())).body(label);
     }
 
     @PostMapping
@@ -52,9 +77,13 @@ public class LabelController {
     }
 
     @PutMapping("/{id}")
-    public LabelDTO updateLabel(@PathVariable Long id, @Valid @RequestBody LabelCreateDTO labelCreateDTO, Authentication authentication) {
+    public ResponseEntity<LabelDTO> updateLabel(@PathVariable Long id,
+                                                @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                                @Valid @RequestBody LabelCreateDTO labelCreateDTO,
+                                                Authentication authentication) {
         String username = authentication.getName();
-        return labelService.updateLabel(id, labelCreateDTO.getName(), username);
+        LabelDTO label = labelService.updateLabel(id, labelCreateDTO.getName(), username, ETags.parseIfMatch(ifMatch));
+        return ResponseEntity.ok().eTag(ETags.of(label.getVersion())).body(label);
     }
 
     @DeleteMapping("/{id}")
@@ -0,0 +1,92 @@
+package hexlet.code.controller;
+
+import hexlet.code.exception.BadRequestException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+import java.util.Set;
+
+final class Pagination {
+    static final int MAX_PAGE_SIZE = 100;
+    private static final String ID = "id";
+
+    private Pagination() {
+    }
+
+    // React-Admin's json-server contract: _start and _end are a half-open row range, _sort and _order a single
+    // sort key. A missing or oversized range is cut to MAX_PAGE_SIZE rows, and only whitelisted keys are
+    // accepted so every sort can use an index; the id is appended to keep pages stable
+    static Pageable of(Integer start, Integer end, String sort, String order, Set<String> sortKeys) {
+        int offset = start == null ? 0 : Math.max(start, 0);
+        int limit = end == null ? MAX_PAGE_SIZE : Math.clamp((long) end - offset, 1, MAX_PAGE_SIZE);
+
+        String key = sort == null || sort.isBlank() ? ID : sort;
+        if (!sortKeys.contains(key)) {
+            throw new BadRequestException("Cannot sort by: " + key);
+        }
+        Sort.Direction direction = "DESC".equalsIgnoreCase(order) ? Sort.Direction.DESC : Sort.Direction.ASC;
+        Sort sortBy = Sort.by(direction, key);
+        if (!key.equals(ID)) {
+            sortBy = sortBy.and(Sort.by(direction, ID));
+        }
+        return new OffsetPageRequest(offset, limit, sortBy);
+    }
+
+    static ResponseEntity<List<?>> ok(Page<?> page, Set<String> fields) {
+        return ResponseEntity.ok()
+                .header("X-Total-Count", String.valueOf(page.getTotalElements()))
+                .body(fields == null ? page.getContent() : SparseFields.select(page.getContent(), fields));
+    }
+
+    // PageRequest only knows page numbers, while React-Admin sends row offsets
+    private record OffsetPageRequest(long offset, int limit, Sort sort) implements Pageable {
+
+        @Override
+        public int getPageNumber() {
+            return (int) (offset / limit);
+        }
+
+        @Override
+        public int getPageSize() {
+            return limit;
+        }
+
+        @Override
+        public long getOffset() {
+            return offset;
+        }
+
+        @Override
+        public Sort getSort() {
+            return sort;
+        }
+
+        @Override
+        public Pageable next() {
+            return new OffsetPageRequest(offset + limit, limit, sort);
+        }
+
+        @Override
+        public Pageable previousOrFirst() {
+            return new OffsetPageRequest(Math.max(offset - limit, 0), limit, sort);
+        }
+
+        @Override
+        public Pageable first() {
+            return new OffsetPageRequest(0, limit, sort);
+        }
+
+        @Override
+        public Pageable withPage(int pageNumber) {
+            return new OffsetPageRequest((long) pageNumber * limit, limit, sort);
+        }
+
+        @Override
+        public boolean hasPrevious() {
+            return offset > 0;
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package hexlet.code.controller;
+
+import hexlet.code.exception.BadRequestException;
+import org.springframework.beans.BeanUtils;
+
+import java.beans.PropertyDescriptor;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+final class SparseFields {
+    private static final String ID = "id";
+
+    private SparseFields() {
+    }
+
+    // Returns null when no fields were requested, meaning "the whole DTO"; the id is always kept
+    static Set<String> parse(String fields, Class<?> type) {
+        if (fields == null || fields.isBlank()) {
+            return null;
+        }
+        Set<String> selected = new LinkedHashSet<>();
+        selected.add(ID);
+        for (String field : fields.split(",")) {
+            String name = field.trim();
+            if (name.isEmpty()) {
+                continue;
+            }
+            if (readMethod(type, name) == null) {
+                throw new BadRequestException("Unknown field: " + name);
+            }
+            selected.add(name);
+        }
+        return selected;
+    }
+
+    // Writes only the selected properties, in the requested order
+    static List<Map<String, Object>> select(List<?> items, Set<String> fields) {
+        List<Map<String, Object>> result = new ArrayList<>(items.size());
+        if (items.isEmpty()) {
+            return result;
+        }
+        Class<?> type = items.get(0).getClass();
+        Method[] getters = fields.stream().map(name -> readMethod(type, name)).toArray(Method[]::new);
+        String[] names = fields.toArray(String[]::new);
+
+        for (Object item : items) {
+            Map<String, Object> values = new LinkedHashMap<>();
+            for (int i = 0; i < getters.length; i++) {
+                values.put(names[i], invoke(getters[i], item));
+            }
+            result.add(values);
+        }
+        return result;
+    }
+
+    private static Method readMethod(Class<?> type, String name) {
+        return Arrays.stream(BeanUtils.getPropertyDescriptors(type))
+                .filter(descriptor -> descriptor.getName().equals(name) && !name.equals("class"))
+                .map(PropertyDescriptor::getReadMethod)
+                .findFirst()
+                .orElse(null);
+    }
+
+    private static Object invoke(Method getter, Object item) {
+        try {
+            return getter.invoke(item);
+        } catch (IllegalAccessException | InvocationTargetException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package hexlet.code.controller;
+
+import hexlet.code.service.TaskQueryCoalescer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+
+import java.util.concurrent.TimeUnit;
+
+final class StaleResults {
+    private StaleResults() {
+    }
+
+    // Age tells the client the body came from the cache and how old it is, in seconds
+    static ResponseEntity.BodyBuilder ok(TaskQueryCoalescer.Result<?> result) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (result.staleAgeMs() != null) {
+            response.header(HttpHeaders.AGE, String.valueOf(TimeUnit.MILLISECONDS.toSeconds(result.staleAgeMs())));
+        }
+        return response;
+    }
+}
@@ -1,65 +1,134 @@
 package hexlet.code.controller;
 
+import hexlet.code.dto.TaskBulkResultDTO;
+import hexlet.code.dto.TaskBulkUpdateDTO;
 import hexlet.code.dto.TaskCreateDTO;
 import hexlet.code.dto.TaskDTO;
+import hexlet.code.dto.TaskFilterDTO;
+import hexlet.code.dto.TaskHistoryDTO;
+import hexlet.code.dto.TaskMoveDTO;
+import hexlet.code.dto.TaskStatsDTO;
+import hexlet.code.dto.TaskSummaryDTO;
 import hexlet.code.dto.TaskUpdateDTO;
+import hexlet.code.dto.TaskView;
+import hexlet.code.service.IdempotencyService;
+import hexlet.code.service.TaskAuditService;
+import hexlet.code.service.TaskBulkService;
+import hexlet.code.service.TaskCounterService;
+import hexlet.code.service.TaskQueryCoalescer;
 import hexlet.code.service.TaskService;
 import jakarta.validation.Valid;
 import lombok.AllArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.util.List;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/api/tasks")
 @AllArgsConstructor
 public class TaskController {
 
+    private static final int MAX_HISTORY_PAGE_SIZE = 100;
+
     private final TaskService taskService;
+    private final TaskAuditService taskAuditService;
+    private final TaskCounterService taskCounterService;
+    private final TaskBulkService taskBulkService;
+    private final IdempotencyService idempotencyService;
 
     @GetMapping
-    public ResponseEntity<List<TaskDTO>> getAllTasks(
+    public ResponseEntity<List<?>> getAllTasks(
             @RequestParam(required = false) String titleCont,
             @RequestParam(required = false) Long assigneeId,
             @RequestParam(required = false) String status,
-            @RequestParam(required = false) Long labelId) {
+            @RequestParam(required = false) Long labelId,
+            @RequestParam(required = false) String view,
+            @RequestParam(required = false) String fields) {
+
+        // view=summary, or a field list without content, never reads the description from the database;
+        // label ids are only queried when they are part of the response
+        Set<String> selected = SparseFields.parse(fields, TaskDTO.class);
+        boolean summary = TaskView.SUMMARY.matches(view) || selected != null && !selected.contains("content");
+        TaskQueryCoalescer.Result<? extends List<? extends TaskSummaryDTO>> result = summary
+                ? taskService.getFilteredTaskSummaries(titleCont, assigneeId, status, labelId,
+                        selected == null || selected.contains("taskLabelIds"))
+                : taskService.getFilteredTasks(titleCont, assigneeId, status, labelId);
 
-        List<TaskDTO> tasks = taskService.getFilteredTasks(
-                titleCont, assigneeId, status, labelId
-        );
-        
-        return ResponseEntity.ok()
+        List<? extends TaskSummaryDTO> tasks = result.value();
+        return StaleResults.ok(result)
                 .header("X-Total-Count", String.valueOf(tasks.size()))
-                .body(tasks);
+                .body(selected == null ? tasks : SparseFields.select(tasks, selected));
+    }
+
+    @GetMapping("/stats")
+    public TaskStatsDTO getTaskStats() {
+        return taskCounterService.getStats();
     }
 
     @GetMapping("/{id}")
     public ResponseEntity<TaskDTO> getTaskById(@PathVariable Long id) {
         TaskDTO task = taskService.getTaskById(id);
-        return ResponseEntity.ok(task);
+        return ResponseEntity.ok().eTag(ETags.of(task.getVersion())).body(task);
+    }
+
+    @GetMapping("/{id}/history")
+    public ResponseEntity<List<TaskHistoryDTO>> getTaskHistory(
+            @PathVariable Long id,
+            @RequestParam(required = false) Long before,
+            @RequestParam(defaultValue = "20") int limit) {
+
+        int pageSize = Math.clamp(limit, 1, MAX_HISTORY_PAGE_SIZE);
+        List<TaskHistoryDTO> history = taskAuditService.getHistory(id, before, pageSize);
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (history.size() == pageSize) {
+            response.header("X-Next-Cursor", String.valueOf(history.get(pageSize - 1).getId()));
+        }
+        return response.body(history);
     }
 
     @PostMapping
-    @ResponseStatus(HttpStatus.CREATED)
-    public TaskDTO createTask(@Valid @RequestBody TaskCreateDTO taskCreateDTO) {
-        return taskService.createTask(taskCreateDTO);
+    public ResponseEntity<TaskDTO> createTask(
+            @RequestHeader(name = IdempotencyService.HEADER, required = false) String idempotencyKey,
+            @Valid @RequestBody TaskCreateDTO taskCreateDTO) {
+
+        IdempotencyService.Result<TaskDTO> result = idempotencyService.execute(
+                idempotencyKey, "POST /api/tasks", taskCreateDTO, TaskDTO.class,
+                () -> taskService.createTask(taskCreateDTO));
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .header(IdempotencyService.REPLAYED_HEADER, String.valueOf(result.replayed()))
+                .body(result.body());
     }
 
     @PutMapping("/{id}")
-    public ResponseEntity<TaskDTO> updateTask(@PathVariable Long id, @Valid @RequestBody TaskUpdateDTO taskUpdateDTO) {
-        TaskDTO updatedTask = taskService.updateTask(id, taskUpdateDTO);
-        return ResponseEntity.ok(updatedTask);
+    public ResponseEntity<TaskDTO> updateTask(
+            @PathVariable Long id,
+            @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @Valid @RequestBody TaskUpdateDTO taskUpdateDTO) {
+
+        TaskDTO updatedTask = taskService.updateTask(id, taskUpdateDTO, ETags.parseIfMatch(ifMatch));
+        return ResponseEntity.ok().eTag(ETags.of(updatedTask.getVersion())).body(updatedTask);
+    }
+
+    @PostMapping("/{id}/move")
+    public ResponseEntity<TaskDTO> moveTask(@PathVariable Long id, @RequestBody TaskMoveDTO taskMoveDTO) {
+        TaskDTO movedTask = taskService.moveTask(id, taskMoveDTO);
+        return ResponseEntity.ok(movedTask);
     }
 
     @DeleteMapping("/{id}")
@@ -67,4 +136,26 @@ public class TaskController {
     public void deleteTask(@PathVariable Long id) {
         taskService.deleteTask(id);
     }
+
+    @PatchMapping
+    public TaskBulkResultDTO updateTasks(@Valid @RequestBody TaskBulkUpdateDTO taskBulkUpdateDTO) {
+        return taskBulkService.updateTasks(taskBulkUpdateDTO);
+    }
+
+    @DeleteMapping
+    public TaskBulkResultDTO deleteTasks(
+            @RequestParam(required = false) List<Long> ids,
+            @RequestParam(required = false) String titleCont,
+            @RequestParam(required = false) Long assigneeId,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) Long labelId) {
+
+        TaskFilterDTO filter = new TaskFilterDTO();
+        filter.setIds(ids);
+        filter.setTitleCont(titleCont);
+        filter.setAssigneeId(assigneeId);
+        filter.setStatus(status);
+        filter.setLabelId(labelId);
+        return taskBulkService.deleteTasks(filter);
+    }
 }
\ No newline at end of file
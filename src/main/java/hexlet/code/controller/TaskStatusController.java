@@ -4,6 +4,8 @@ import hexlet.code.dto.TaskStatusCreateDTO;
 import hexlet.code.dto.TaskStatusDTO;
 import hexlet.code.service.TaskStatusService;
 import jakarta.validation.Valid;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
@@ -13,15 +15,20 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.util.List;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/api/task_statuses")
 public class TaskStatusController {
+    private static final Set<String> SORT_KEYS = Set.of("id", "name", "slug", "createdAt");
+
     private final TaskStatusService taskStatusService;
     
     public TaskStatusController(TaskStatusService taskStatusService) {
@@ -29,15 +36,22 @@ public class TaskStatusController {
     }
 
     @GetMapping
-    public ResponseEntity<List<TaskStatusDTO>> getAllStatuses() {
-        List<TaskStatusDTO> statuses = taskStatusService.getAllStatuses();
-        return ResponseEntity.ok().header("X-Total-Count", String.valueOf(statuses.size())).body(statuses);
+    public ResponseEntity<List<?>> getAllStatuses(
+            @RequestParam(name = "_start", required = false) Integer start,
+            @RequestParam(name = "_end", required = false) Integer end,
+            @RequestParam(name = "_sort", required = false) String sort,
+            @RequestParam(name = "_order", required = false) String order,
+            @RequestParam(name = "id", required = false) List<Long> ids,
+            @RequestParam(required = false) String fields) {
+        Set<String> selected = SparseFields.parse(fields, TaskStatusDTO.class);
+        Pageable pageable = Pagination.of(start, end, sort, order, SORT_KEYS);
+        return Pagination.ok(taskStatusService.getAllStatuses(ids, selected, pageable), selected);
     }
 
     @GetMapping("/{id}")
     public ResponseEntity<TaskStatusDTO> getStatusById(@PathVariable Long id) {
         TaskStatusDTO status = taskStatusService.getStatusById(id);
-        return ResponseEntity.ok(status);
+        return ResponseEntity.ok().eTag(ETags.of(status.getVersion())).body(status);
     }
     
     @GetMapping("/slug/{slug}")
@@ -55,10 +69,12 @@ public class TaskStatusController {
     }
 
     @PutMapping("/{id}")
-    public ResponseEntity<TaskStatusDTO> updateStatus(@PathVariable Long id, 
+    public ResponseEntity<TaskStatusDTO> updateStatus(@PathVariable Long id,
+                                                     @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch,
                                                      @Valid @RequestBody TaskStatusDTO taskStatusUpdateDTO) {
-        TaskStatusDTO updatedTaskStatus = taskStatusService.updateTaskStatus(id, taskStatusUpdateDTO);
-        return ResponseEntity.ok(updatedTaskStatus);
+        TaskStatusDTO updatedTaskStatus = taskStatusService.updateTaskStatus(
+                id, taskStatusUpdateDTO, ETags.parseIfMatch(ifMatch));
+        return ResponseEntity.ok().eTag(ETags.of(updatedTaskStatus.getVersion())).body(updatedTaskStatus);
     }
 
     @DeleteMapping("/{id}")
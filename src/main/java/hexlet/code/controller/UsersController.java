@@ -2,10 +2,15 @@ package hexlet.code.controller;
 
 import hexlet.code.dto.UserCreateDTO;
 import hexlet.code.dto.UserDTO;
+import hexlet.code.dto.UserSuggestionDTO;
 import hexlet.code.dto.UserUpdateDTO;
+import hexlet.code.service.IdempotencyService;
+import hexlet.code.service.SuggestIndex;
 import hexlet.code.service.UserService;
 import jakarta.validation.Valid;
 import lombok.AllArgsConstructor;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -15,48 +20,78 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.util.List;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/api/users")
 @AllArgsConstructor
 public class UsersController {
 
+    private static final Set<String> SORT_KEYS = Set.of("id", "email", "firstName", "lastName", "createdAt");
+    private static final int MAX_SUGGESTIONS = 50;
+
     private final UserService userService;
+    private final SuggestIndex suggestIndex;
+    private final IdempotencyService idempotencyService;
 
     @GetMapping
-    public ResponseEntity<List<UserDTO>> getAllUsers() {
-        List<UserDTO> users = userService.getAllUsers();
-        return ResponseEntity.ok().header("X-Total-Count", String.valueOf(users.size())).body(users);
+    public ResponseEntity<List<?>> getAllUsers(
+            @RequestParam(name = "_start", required = false) Integer start,
+            @RequestParam(name = "_end", required = false) Integer end,
+            @RequestParam(name = "_sort", required = false) String sort,
+            @RequestParam(name = "_order", required = false) String order,
+            @RequestParam(name = "id", required = false) List<Long> ids,
+            @RequestParam(required = false) String fields) {
+        Set<String> selected = SparseFields.parse(fields, UserDTO.class);
+        Pageable pageable = Pagination.of(start, end, sort, order, SORT_KEYS);
+        return Pagination.ok(userService.getAllUsers(ids, selected, pageable), selected);
+    }
+
+    @GetMapping("/suggest")
+    public List<UserSuggestionDTO> suggestUsers(
+            @RequestParam(defaultValue = "") String q,
+            @RequestParam(defaultValue = "10") int limit) {
+        return suggestIndex.suggestUsers(q, Math.clamp(limit, 1, MAX_SUGGESTIONS));
     }
 
     @GetMapping("/{id}")
     public ResponseEntity<UserDTO> getUserById(@PathVariable Long id) {
         UserDTO user = userService.getUserById(id);
-        return ResponseEntity.ok(user);
+        return ResponseEntity.ok().eTag(ETags.of(user.getVersion())).body(user);
     }
 
     @PostMapping
-    @ResponseStatus(HttpStatus.CREATED)
-    public UserDTO createUser(@Valid @RequestBody UserCreateDTO userCreateDTO) {
-        return userService.createUser(userCreateDTO);
+    public ResponseEntity<UserDTO> createUser(
+            @RequestHeader(name = IdempotencyService.HEADER, required = false) String idempotencyKey,
+            @Valid @RequestBody UserCreateDTO userCreateDTO) {
+
+        IdempotencyService.Result<UserDTO> result = idempotencyService.execute(
+                idempotencyKey, "POST /api/users", userCreateDTO, UserDTO.class,
+                () -> userService.createUser(userCreateDTO));
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .header(IdempotencyService.REPLAYED_HEADER, String.valueOf(result.replayed()))
+                .body(result.body());
     }
 
     @PutMapping("/{id}")
-    @PreAuthorize("@userServiceImpl.getUserById(#id).email == authentication.name")
-    public ResponseEntity<UserDTO> updateUser(@PathVariable Long id, 
+    @PreAuthorize("@userAccessService.isCurrentUser(#id, authentication)")
+    public ResponseEntity<UserDTO> updateUser(@PathVariable Long id,
+                                             @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch,
                                              @Valid @RequestBody UserUpdateDTO userUpdateDTO) {
-        UserDTO updatedUser = userService.updateUser(id, userUpdateDTO);
-        return ResponseEntity.ok(updatedUser);
+        UserDTO updatedUser = userService.updateUser(id, userUpdateDTO, ETags.parseIfMatch(ifMatch));
+        return ResponseEntity.ok().eTag(ETags.of(updatedUser.getVersion())).body(updatedUser);
     }
 
     @DeleteMapping("/{id}")
     @ResponseStatus(HttpStatus.NO_CONTENT)
-    @PreAuthorize("@userServiceImpl.getUserById(#id).email == authentication.name")
+    @PreAuthorize("@userAccessService.isCurrentUser(#id, authentication)")
     public void deleteUser(@PathVariable Long id) {
         userService.deleteUser(id);
     }
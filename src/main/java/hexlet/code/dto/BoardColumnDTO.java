@@ -0,0 +1,16 @@
+package hexlet.code.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+@Setter
+public class BoardColumnDTO {
+    private Long statusId;
+    private String name;
+    private String slug;
+    private List<TaskSummaryDTO> tasks = new ArrayList<>();
+}
@@ -0,0 +1,14 @@
+package hexlet.code.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+public class BoardDTO {
+    private List<BoardColumnDTO> columns;
+    private List<UserDTO> users;
+    private List<LabelDTO> labels;
+}
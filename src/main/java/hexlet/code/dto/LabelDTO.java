@@ -11,4 +11,5 @@ public class LabelDTO {
     private Long id;
     private String name;
     private Instant createdAt;
+    private Long version;
 }
\ No newline at end of file
@@ -0,0 +1,12 @@
+package hexlet.code.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class RefreshRequestDTO {
+    @NotBlank
+    private String refreshToken;
+}
@@ -0,0 +1,22 @@
+package hexlet.code.dto;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.Set;
+
+@Getter
+@Setter
+public class TaskBulkUpdateDTO {
+    @NotNull
+    private TaskFilterDTO filter;
+
+    private String status;
+
+    private Long assignee_id;
+
+    private Set<Long> addLabelIds;
+
+    private Set<Long> removeLabelIds;
+}
@@ -3,18 +3,8 @@ package hexlet.code.dto;
 import lombok.Getter;
 import lombok.Setter;
 
-import java.time.LocalDate;
-import java.util.List;
-
 @Getter
 @Setter
-public class TaskDTO {
-    private Long id;
-    private Integer index;
-    private String title;
+public class TaskDTO extends TaskSummaryDTO {
     private String content;
-    private String status;
-    private Long assignee_id;
-    private List<Long> taskLabelIds;
-    private LocalDate createdAt;
-}
\ No newline at end of file
+}
@@ -0,0 +1,28 @@
+package hexlet.code.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+public class TaskFilterDTO {
+    private List<Long> ids;
+
+    private String titleCont;
+
+    private Long assigneeId;
+
+    private String status;
+
+    private Long labelId;
+
+    public boolean isEmpty() {
+        return (ids == null || ids.isEmpty())
+                && (titleCont == null || titleCont.isBlank())
+                && assigneeId == null
+                && (status == null || status.isBlank())
+                && labelId == null;
+    }
+}
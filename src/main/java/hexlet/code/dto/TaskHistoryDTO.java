@@ -0,0 +1,17 @@
+package hexlet.code.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.Instant;
+
+@Getter
+@Setter
+public class TaskHistoryDTO {
+    private Long id;
+    private String field;
+    private String oldValue;
+    private String newValue;
+    private String changedBy;
+    private Instant changedAt;
+}
@@ -0,0 +1,14 @@
+package hexlet.code.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class TaskMoveDTO {
+    private String status;
+
+    private Long beforeId;
+
+    private Long afterId;
+}
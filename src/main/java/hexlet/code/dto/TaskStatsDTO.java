@@ -0,0 +1,15 @@
+package hexlet.code.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.Map;
+
+@Getter
+@Setter
+public class TaskStatsDTO {
+    private long total;
+    private Map<String, Long> byStatus;
+    private Map<String, Long> byAssignee;
+    private Map<String, Long> byLabel;
+}
@@ -15,4 +15,5 @@ public class TaskStatusDTO {
     @Size(min = 1)
     String slug;
     private LocalDate createdAt;
+    private Long version;
 }
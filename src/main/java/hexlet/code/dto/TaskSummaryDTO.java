@@ -0,0 +1,21 @@
+package hexlet.code.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Getter
+@Setter
+public class TaskSummaryDTO {
+    private Long id;
+    private Integer index;
+    private Long rank;
+    private String title;
+    private String status;
+    private Long assignee_id;
+    private List<Long> taskLabelIds;
+    private LocalDate createdAt;
+    private Long version;
+}
@@ -0,0 +1,19 @@
+package hexlet.code.dto;
+
+// Representations of a task list; each one is cached separately by the query coalescer
+public enum TaskView {
+    FULL("full"),
+    SUMMARY("summary"),
+    // A summary without label ids, chosen by a field list rather than requested by name
+    SUMMARY_WITHOUT_LABELS("summary-without-labels");
+
+    private final String param;
+
+    TaskView(String param) {
+        this.param = param;
+    }
+
+    public boolean matches(String view) {
+        return param.equals(view);
+    }
+}
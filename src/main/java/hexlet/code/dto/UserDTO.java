@@ -19,6 +19,8 @@ public class UserDTO {
 
     private LocalDate createdAt;
 
+    private Long version;
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -0,0 +1,85 @@
+package hexlet.code.filter;
+
+import hexlet.code.exception.ServiceUnavailableException;
+import hexlet.code.service.ConcurrencyLimitService;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerExceptionResolver;
+
+import java.io.IOException;
+import java.util.Set;
+
+// Runs ahead of the security chain, so a shed request costs no token parsing or user lookup
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    private static final Set<String> AUTH_PATHS = Set.of("/api/login", "/api/refresh", "/api/logout", "/api/tokens");
+
+    private final ConcurrencyLimitService concurrencyLimitService;
+    private final HandlerExceptionResolver handlerExceptionResolver;
+    private final boolean enabled;
+
+    public ConcurrencyLimitFilter(ConcurrencyLimitService concurrencyLimitService,
+                                  @Qualifier("handlerExceptionResolver") HandlerExceptionResolver resolver,
+                                  @Value("${concurrency-limit.enabled:true}") boolean enabled) {
+        this.concurrencyLimitService = concurrencyLimitService;
+        this.handlerExceptionResolver = resolver;
+        this.enabled = enabled;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        return !enabled || !request.getRequestURI().startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain
+    ) throws ServletException, IOException {
+        ConcurrencyLimitService.Permit permit = concurrencyLimitService.tryAcquire(group(request));
+        if (permit == null) {
+            // Rendered by GlobalExceptionHandler like any other error
+            handlerExceptionResolver.resolveException(request, response, null,
+                    new ServiceUnavailableException("Server is busy", 1));
+            return;
+        }
+
+        boolean completed = false;
+        try {
+            filterChain.doFilter(request, response);
+            completed = true;
+        } finally {
+            if (completed) {
+                permit.complete();
+            } else {
+                permit.abandon();
+            }
+        }
+    }
+
+    static String group(HttpServletRequest request) {
+        String path = request.getRequestURI();
+        if (AUTH_PATHS.contains(path)) {
+            return ConcurrencyLimitService.AUTH_GROUP;
+        }
+        if (path.equals("/api/tasks") || path.startsWith("/api/tasks/") || path.equals("/api/board")) {
+            String method = request.getMethod();
+            return "GET".equals(method) || "HEAD".equals(method)
+                    ? ConcurrencyLimitService.TASK_READ_GROUP
+                    : ConcurrencyLimitService.TASK_WRITE_GROUP;
+        }
+        return ConcurrencyLimitService.DEFAULT_GROUP;
+    }
+}
@@ -0,0 +1,43 @@
+package hexlet.code.filter;
+
+import hexlet.code.config.ConnectionHoldTracker;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+// Outermost filter, so connections used by the security chain count towards the request too
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class ConnectionHoldTimeFilter extends OncePerRequestFilter {
+
+    private final ConnectionHoldTracker connectionHoldTracker;
+
+    public ConnectionHoldTimeFilter(ConnectionHoldTracker connectionHoldTracker) {
+        this.connectionHoldTracker = connectionHoldTracker;
+    }
+
+    @Override
+    protected void doFilterInternal(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain
+    ) throws ServletException, IOException {
+        connectionHoldTracker.beginRequest();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            // The route template keeps the tag set bounded, unlike the raw path with ids in it
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            connectionHoldTracker.endRequest(request.getMethod(), pattern == null ? "UNKNOWN" : pattern.toString());
+        }
+    }
+}
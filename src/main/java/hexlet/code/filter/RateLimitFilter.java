@@ -0,0 +1,62 @@
+package hexlet.code.filter;
+
+import hexlet.code.service.RateLimitService;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.lang.NonNull;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+// Not a @Component: it must run inside the security chain, after the JWT filter has set the principal
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private final RateLimitService rateLimitService;
+
+    public RateLimitFilter(RateLimitService rateLimitService) {
+        this.rateLimitService = rateLimitService;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        return !request.getRequestURI().startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain
+    ) throws ServletException, IOException {
+        long waitNanos;
+        // The remote address is the client, not the load balancer, because prod resolves X-Forwarded-For
+        // from trusted proxies (server.forward-headers-strategy)
+        if ("POST".equals(request.getMethod()) && request.getRequestURI().equals("/api/login")) {
+            waitNanos = rateLimitService.tryAcquire(RateLimitService.LOGIN_POLICY, "ip:" + request.getRemoteAddr());
+        } else {
+            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+            String key = authentication != null && authentication.isAuthenticated()
+                    && !(authentication instanceof AnonymousAuthenticationToken)
+                    ? "user:" + authentication.getName()
+                    : "ip:" + request.getRemoteAddr();
+            waitNanos = rateLimitService.tryAcquire(RateLimitService.API_POLICY, key);
+        }
+
+        if (waitNanos > 0) {
+            long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999L));
+            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+            response.getWriter().write("Too many requests");
+            return;
+        }
+        filterChain.doFilter(request, response);
+    }
+}
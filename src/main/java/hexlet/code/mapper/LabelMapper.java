@@ -28,6 +28,7 @@ public interface LabelMapper {
 
     @Mapping(target = "id", ignore = true)
     @Mapping(target = "createdAt", ignore = true)
+    @Mapping(target = "version", ignore = true)
     @Mapping(target = "tasks", ignore = true)
     void update(LabelDTO dto, @MappingTarget Label model);
 
@@ -0,0 +1,16 @@
+package hexlet.code.mapper;
+
+import hexlet.code.dto.TaskHistoryDTO;
+import hexlet.code.model.TaskHistory;
+import org.mapstruct.Mapper;
+import org.mapstruct.MappingConstants;
+import org.mapstruct.ReportingPolicy;
+
+@Mapper(
+    componentModel = MappingConstants.ComponentModel.SPRING,
+    unmappedTargetPolicy = ReportingPolicy.IGNORE
+)
+public interface TaskHistoryMapper {
+
+    TaskHistoryDTO map(TaskHistory model);
+}
@@ -2,6 +2,7 @@ package hexlet.code.mapper;
 
 import hexlet.code.dto.TaskCreateDTO;
 import hexlet.code.dto.TaskDTO;
+import hexlet.code.dto.TaskSummaryDTO;
 import hexlet.code.dto.TaskUpdateDTO;
 import hexlet.code.model.Label;
 import hexlet.code.model.Task;
@@ -10,6 +11,7 @@ import hexlet.code.model.User;
 import hexlet.code.repository.LabelRepository;
 import hexlet.code.repository.TaskStatusRepository;
 import hexlet.code.repository.UserRepository;
+import org.mapstruct.AfterMapping;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 import org.mapstruct.MappingConstants;
@@ -63,15 +65,61 @@ public abstract class TaskMapper {
     @Mapping(target = "createdAt", expression = "java(convertToLocalDate(model.getCreatedAt()))")
     public abstract TaskDTO map(Task model);
 
+    // Row layout of TaskRepository.SUMMARY_COLUMNS
+    public TaskSummaryDTO mapSummary(Object[] row, List<Long> labelIds) {
+        return fillSummary(new TaskSummaryDTO(), row, labelIds);
+    }
+
+    // Row layout of TaskRepository.findDetailRows
+    public TaskDTO mapDetail(Object[] row, List<Long> labelIds) {
+        TaskDTO dto = fillSummary(new TaskDTO(), row, labelIds);
+        dto.setContent((String) row[9]);
+        return dto;
+    }
+
+    private <T extends TaskSummaryDTO> T fillSummary(T dto, Object[] row, List<Long> labelIds) {
+        dto.setId((Long) row[0]);
+        dto.setIndex((Integer) row[1]);
+        dto.setRank((Long) row[2]);
+        dto.setTitle((String) row[3]);
+        dto.setStatus((String) row[4]);
+        dto.setAssignee_id((Long) row[5]);
+        dto.setCreatedAt(convertToLocalDate((Instant) row[6]));
+        dto.setVersion((Long) row[7]);
+        dto.setTaskLabelIds(labelIds);
+        return dto;
+    }
+
     @Mapping(target = "id", ignore = true)
     @Mapping(target = "name", source = "title")
     @Mapping(target = "description", source = "content")
     @Mapping(target = "taskStatus", source = "status", qualifiedByName = "statusToTaskStatus")
     @Mapping(target = "assignee", source = "assignee_id", qualifiedByName = "assigneeIdToUser")
-    @Mapping(target = "labels", source = "labelIds", qualifiedByName = "labelIdsSetToLabels")
+    @Mapping(target = "labels", ignore = true)
     @Mapping(target = "createdAt", ignore = true)
     public abstract void update(TaskUpdateDTO dto, @MappingTarget Task model);
 
+    // Replacing the collection makes Hibernate delete and re-insert every task_labels row, so the managed
+    // set is edited in place instead: only removed and added rows are written, and only new labels are loaded
+    @AfterMapping
+    protected void updateLabels(TaskUpdateDTO dto, @MappingTarget Task model) {
+        if (dto.getLabelIds() == null) {
+            return;
+        }
+        Set<Long> targetIds = dto.getLabelIds();
+        model.getLabels().removeIf(label -> !targetIds.contains(label.getId()));
+
+        Set<Long> currentIds = model.getLabels().stream()
+                .map(Label::getId)
+                .collect(Collectors.toSet());
+        List<Long> addedIds = targetIds.stream()
+                .filter(id -> !currentIds.contains(id))
+                .toList();
+        if (!addedIds.isEmpty()) {
+            model.getLabels().addAll(labelRepository.findAllById(addedIds));
+        }
+    }
+
     @Named("statusToTaskStatus")
     protected TaskStatus statusToTaskStatus(String status) {
         if (status == null) {
@@ -110,16 +158,6 @@ public abstract class TaskMapper {
                 .collect(Collectors.toList());
     }
     
-    @Named("labelIdsSetToLabels")
-    protected Set<Label> labelIdsSetToLabels(Set<Long> labelIds) {
-        if (labelIds == null) {
-            return null;
-        }
-        return labelRepository.findAllById(labelIds)
-                .stream()
-                .collect(Collectors.toSet());
-    }
-
     protected Instant getCurrentTime() {
         return Instant.now();
     }
@@ -30,6 +30,7 @@ public interface TaskStatusMapper {
 
     @Mapping(target = "id", ignore = true)
     @Mapping(target = "createdAt", ignore = true)
+    @Mapping(target = "version", ignore = true)
     void update(TaskStatusDTO dto, @MappingTarget TaskStatus model);
 
     default Instant getCurrentTime() {
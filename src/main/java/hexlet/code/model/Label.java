@@ -4,12 +4,15 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.ManyToMany;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.time.Instant;
 import java.util.HashSet;
@@ -19,7 +22,10 @@ import java.util.Set;
 @Getter
 @Setter
 @Entity
-@Table(name = "labels")
+@Table(name = "labels", indexes = {
+    @Index(name = "idx_labels_name", columnList = "name"),
+    @Index(name = "idx_labels_created_at_id", columnList = "created_at, id")
+})
 public class Label {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -31,6 +37,10 @@ public class Label {
 
     private Instant createdAt;
 
+    @Version
+    @ColumnDefault("0")
+    private Long version;
+
     @ManyToMany(mappedBy = "labels")
     private Set<Task> tasks = new HashSet<>();
     
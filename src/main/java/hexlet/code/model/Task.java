@@ -4,16 +4,20 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.ManyToMany;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.JoinTable;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.DynamicUpdate;
 
 import java.time.Instant;
 import java.util.HashSet;
@@ -23,7 +27,8 @@ import java.util.Set;
 @Getter
 @Setter
 @Entity
-@Table(name = "tasks")
+@DynamicUpdate
+@Table(name = "tasks", indexes = @Index(name = "idx_tasks_status_rank", columnList = "task_status_id, sort_rank"))
 public class Task {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -35,6 +40,9 @@ public class Task {
 
     private Integer index;
 
+    @jakarta.persistence.Column(name = "sort_rank")
+    private Long rank;
+
     @jakarta.persistence.Column(length = 2000)
     private String description;
 
@@ -56,6 +64,10 @@ public class Task {
     private Set<Label> labels = new HashSet<>();
 
     private Instant createdAt;
+
+    @Version
+    @ColumnDefault("0")
+    private Long version;
     
     @Override
     public boolean equals(Object o) {
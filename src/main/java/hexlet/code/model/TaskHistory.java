@@ -0,0 +1,38 @@
+package hexlet.code.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.Instant;
+
+@Getter
+@Setter
+@Entity
+@Table(name = "task_history", indexes = @Index(name = "idx_task_history_task_id_id", columnList = "task_id, id"))
+public class TaskHistory {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "task_id", nullable = false)
+    private Long taskId;
+
+    private String field;
+
+    @Column(length = 2000)
+    private String oldValue;
+
+    @Column(length = 2000)
+    private String newValue;
+
+    private String changedBy;
+
+    private Instant changedAt;
+}
@@ -4,16 +4,23 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.time.Instant;
 
 @Getter
 @Setter
 @Entity
-@Table(name = "task_statuses")
+@Table(name = "task_statuses", indexes = {
+    @Index(name = "idx_task_statuses_slug", columnList = "slug"),
+    @Index(name = "idx_task_statuses_name_id", columnList = "name, id"),
+    @Index(name = "idx_task_statuses_created_at_id", columnList = "created_at, id")
+})
 public class TaskStatus {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -21,4 +28,8 @@ public class TaskStatus {
     private String name;
     private String slug;
     private Instant createdAt;
+
+    @Version
+    @ColumnDefault("0")
+    private Long version;
 }
@@ -4,15 +4,23 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import java.time.Instant;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.ColumnDefault;
 
 @Getter
 @Setter
 @Entity
-@Table(name = "users")
+@Table(name = "users", indexes = {
+    @Index(name = "idx_users_email", columnList = "email"),
+    @Index(name = "idx_users_first_name_id", columnList = "first_name, id"),
+    @Index(name = "idx_users_last_name_id", columnList = "last_name, id"),
+    @Index(name = "idx_users_created_at_id", columnList = "created_at, id")
+})
 public class User {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -23,4 +31,8 @@ public class User {
     private String password;
     private Instant createdAt;
     private Instant updatedAt;
+
+    @Version
+    @ColumnDefault("0")
+    private Long version;
 }
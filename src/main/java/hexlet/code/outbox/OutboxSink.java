@@ -0,0 +1,7 @@
+package hexlet.code.outbox;
+
+public interface OutboxSink {
+    String name();
+
+    void publish(TaskDomainEvent event) throws Exception;
+}
@@ -0,0 +1,14 @@
+package hexlet.code.outbox;
+
+import com.fasterxml.jackson.annotation.JsonRawValue;
+
+import java.time.Instant;
+
+public record TaskDomainEvent(
+        Long eventId,
+        String eventType,
+        Long taskId,
+        // Already JSON, written as is instead of as a quoted string
+        @JsonRawValue String payload,
+        Instant occurredAt) {
+}
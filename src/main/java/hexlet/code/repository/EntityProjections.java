@@ -0,0 +1,87 @@
+package hexlet.code.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import jakarta.persistence.metamodel.Attribute;
+import jakarta.persistence.metamodel.EntityType;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.PropertyAccessorFactory;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public class EntityProjections {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // Selects only the requested basic columns (plus the id) and returns detached entities with just those
+    // attributes set, so the regular mappers can turn them into DTOs. Names that are not basic attributes
+    // of the entity, such as associations, are skipped. A null ids means no id filter
+    public <E> Page<E> findAll(Class<E> type, Collection<String> attributes, Collection<Long> ids, Pageable pageable) {
+        EntityType<E> entityType = entityManager.getMetamodel().entity(type);
+        String idName = entityType.getId(entityType.getIdType().getJavaType()).getName();
+
+        List<String> selected = new ArrayList<>();
+        selected.add(idName);
+        for (String name : attributes) {
+            if (!selected.contains(name) && isBasic(entityType, name)) {
+                selected.add(name);
+            }
+        }
+
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<E> root = query.from(type);
+        query.multiselect(selected.stream().<Selection<?>>map(root::get).toList());
+        if (ids != null) {
+            query.where(root.get(idName).in(ids));
+        }
+        query.orderBy(QueryUtils.toOrders(pageable.getSort(), root, cb));
+
+        TypedQuery<Tuple> typedQuery = entityManager.createQuery(query);
+        typedQuery.setFirstResult((int) pageable.getOffset());
+        typedQuery.setMaxResults(pageable.getPageSize());
+
+        List<E> content = new ArrayList<>();
+        for (Tuple tuple : typedQuery.getResultList()) {
+            BeanWrapper entity = PropertyAccessorFactory.forBeanPropertyAccess(BeanUtils.instantiateClass(type));
+            for (int i = 0; i < selected.size(); i++) {
+                entity.setPropertyValue(selected.get(i), tuple.get(i));
+            }
+            content.add(type.cast(entity.getWrappedInstance()));
+        }
+        return PageableExecutionUtils.getPage(content, pageable, () -> count(type, idName, ids));
+    }
+
+    private <E> long count(Class<E> type, String idName, Collection<Long> ids) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<E> root = query.from(type);
+        query.select(cb.count(root));
+        if (ids != null) {
+            query.where(root.get(idName).in(ids));
+        }
+        return entityManager.createQuery(query).getSingleResult();
+    }
+
+    private static boolean isBasic(EntityType<?> entityType, String name) {
+        return entityType.getSingularAttributes().stream()
+                .anyMatch(attribute -> attribute.getName().equals(name)
+                        && attribute.getPersistentAttributeType() == Attribute.PersistentAttributeType.BASIC);
+    }
+}
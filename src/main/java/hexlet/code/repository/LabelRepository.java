@@ -1,12 +1,17 @@
 package hexlet.code.repository;
 
 import hexlet.code.model.Label;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.Optional;
 
 @Repository
 public interface LabelRepository extends JpaRepository<Label, Long> {
     Optional<Label> findByName(String name);
+
+    Page<Label> findByIdIn(Collection<Long> ids, Pageable pageable);
 }
\ No newline at end of file
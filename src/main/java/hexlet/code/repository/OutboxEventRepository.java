@@ -0,0 +1,54 @@
+package hexlet.code.repository;
+
+import hexlet.code.model.OutboxEvent;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+    // Pending events that are due, skipping every event queued behind a backed-off event of the same task,
+    // so a retry never lets later events of that task overtake it
+    @Query("SELECT e FROM OutboxEvent e WHERE e.publishedAt IS NULL AND e.failedAt IS NULL AND NOT EXISTS ("
+            + "SELECT 1 FROM OutboxEvent p WHERE p.aggregateType = e.aggregateType "
+            + "AND p.aggregateId = e.aggregateId AND p.id <= e.id "
+            + "AND p.publishedAt IS NULL AND p.failedAt IS NULL AND p.nextAttemptAt > :now) "
+            + "ORDER BY e.id ASC")
+    List<OutboxEvent> findDue(@Param("now") Instant now, Limit limit);
+
+    Optional<OutboxEvent> findFirstByPublishedAtIsNullAndFailedAtIsNullOrderByIdAsc();
+
+    long countByPublishedAtIsNullAndFailedAtIsNull();
+
+    long countByFailedAtIsNotNull();
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE OutboxEvent e SET e.publishedAt = :publishedAt WHERE e.id IN :ids")
+    int markPublished(@Param("ids") Collection<Long> ids, @Param("publishedAt") Instant publishedAt);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE OutboxEvent e SET e.attempts = :attempts, e.nextAttemptAt = :nextAttemptAt WHERE e.id = :id")
+    int scheduleRetry(@Param("id") Long id, @Param("attempts") int attempts,
+                      @Param("nextAttemptAt") Instant nextAttemptAt);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE OutboxEvent e SET e.attempts = :attempts, e.failedAt = :failedAt WHERE e.id = :id")
+    int markFailed(@Param("id") Long id, @Param("attempts") int attempts, @Param("failedAt") Instant failedAt);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM OutboxEvent e WHERE e.publishedAt < :threshold")
+    int deletePublishedBefore(@Param("threshold") Instant threshold);
+}
@@ -0,0 +1,15 @@
+package hexlet.code.repository;
+
+import hexlet.code.model.TaskHistory;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface TaskHistoryRepository extends JpaRepository<TaskHistory, Long> {
+    List<TaskHistory> findByTaskIdOrderByIdDesc(Long taskId, Limit limit);
+
+    List<TaskHistory> findByTaskIdAndIdLessThanOrderByIdDesc(Long taskId, Long id, Limit limit);
+}
@@ -1,10 +1,123 @@
 package hexlet.code.repository;
 
 import hexlet.code.model.Task;
+import hexlet.code.model.TaskStatus;
+import hexlet.code.model.User;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
 @Repository
-public interface TaskRepository extends JpaRepository<Task, Long>, JpaSpecificationExecutor<Task> {
-}
\ No newline at end of file
+public interface TaskRepository
+        extends JpaRepository<Task, Long>, JpaSpecificationExecutor<Task>, TaskRepositoryCustom {
+    // Everything a list view shows, without the description
+    String SUMMARY_COLUMNS = "t.id, t.index, t.rank, t.name, s.slug, a.id, t.createdAt, t.version, s.id";
+
+    @Override
+    @EntityGraph(attributePaths = {"taskStatus", "assignee", "labels"})
+    List<Task> findAll(Specification<Task> spec);
+
+    @Override
+    @EntityGraph(attributePaths = {"taskStatus", "assignee", "labels"})
+    List<Task> findAll(Specification<Task> spec, Sort sort);
+
+    @Query("SELECT MAX(t.rank) FROM Task t WHERE t.taskStatus.id = :statusId")
+    Long findMaxRank(@Param("statusId") Long statusId);
+
+    @Query("SELECT MIN(t.rank) FROM Task t WHERE t.id IN :ids")
+    Long findMinRank(@Param("ids") Collection<Long> ids);
+
+    Optional<Task> findFirstByTaskStatusIdAndRankGreaterThanAndIdNotOrderByRankAsc(Long statusId, Long rank, Long id);
+
+    Optional<Task> findFirstByTaskStatusIdAndRankLessThanAndIdNotOrderByRankDesc(Long statusId, Long rank, Long id);
+
+    boolean existsByTaskStatusIdAndRankIsNull(Long statusId);
+
+    @Query("SELECT DISTINCT t.taskStatus.id FROM Task t WHERE t.rank IS NULL")
+    List<Long> findStatusIdsWithUnrankedTasks();
+
+    @Query("SELECT t FROM Task t WHERE t.taskStatus.id = :statusId "
+            + "ORDER BY t.rank ASC NULLS FIRST, t.index ASC NULLS LAST, t.id ASC")
+    List<Task> findInColumnOrder(@Param("statusId") Long statusId);
+
+    @Query("SELECT t.taskStatus.slug, COUNT(t) FROM Task t GROUP BY t.taskStatus.slug")
+    List<Object[]> countByStatus();
+
+    @Query("SELECT t.assignee.id, COUNT(t) FROM Task t WHERE t.assignee IS NOT NULL GROUP BY t.assignee.id")
+    List<Object[]> countByAssignee();
+
+    @Query("SELECT l.id, COUNT(t) FROM Task t JOIN t.labels l GROUP BY l.id")
+    List<Object[]> countByLabel();
+
+    @Query("SELECT t.id, t.name, t.index, s.slug, a.id FROM Task t "
+            + "JOIN t.taskStatus s LEFT JOIN t.assignee a WHERE t.id IN :ids")
+    List<Object[]> findSummaryRows(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT " + SUMMARY_COLUMNS + " FROM Task t "
+            + "JOIN t.taskStatus s LEFT JOIN t.assignee a WHERE t.id IN :ids")
+    List<Object[]> findListRows(@Param("ids") Collection<Long> ids);
+
+    // SUMMARY_COLUMNS followed by the description, for outbox payloads built without loading entities
+    @Query("SELECT " + SUMMARY_COLUMNS + ", t.description FROM Task t "
+            + "JOIN t.taskStatus s LEFT JOIN t.assignee a WHERE t.id IN :ids")
+    List<Object[]> findDetailRows(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT t.id, l.id FROM Task t JOIN t.labels l WHERE t.id IN :ids")
+    List<Object[]> findLabelRows(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT t.id, t.name, t.rank, s.id, s.slug, a.id, t.version FROM Task t "
+            + "JOIN t.taskStatus s LEFT JOIN t.assignee a")
+    List<Object[]> findIndexRows();
+
+    @Query("SELECT t.id, t.name, t.rank, s.id, s.slug, a.id, t.version FROM Task t "
+            + "JOIN t.taskStatus s LEFT JOIN t.assignee a WHERE t.id IN :ids")
+    List<Object[]> findIndexRows(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT t.id, l.id FROM Task t JOIN t.labels l")
+    List<Object[]> findAllLabelRows();
+
+    @Modifying
+    @Query("UPDATE Task t SET t.taskStatus = :taskStatus WHERE t.id IN :ids")
+    int updateStatus(@Param("ids") Collection<Long> ids, @Param("taskStatus") TaskStatus taskStatus);
+
+    @Modifying
+    @Query("UPDATE Task t SET t.rank = t.rank + :offset WHERE t.id IN :ids")
+    int shiftRanks(@Param("ids") Collection<Long> ids, @Param("offset") long offset);
+
+    @Modifying
+    @Query("UPDATE Task t SET t.assignee = :assignee WHERE t.id IN :ids")
+    int updateAssignee(@Param("ids") Collection<Long> ids, @Param("assignee") User assignee);
+
+    @Modifying
+    @Query("UPDATE Task t SET t.version = COALESCE(t.version, 0) + 1 WHERE t.id IN :ids")
+    int incrementVersions(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query(value = "INSERT INTO task_labels (task_id, label_id) SELECT t.id, :labelId FROM tasks t "
+            + "WHERE t.id IN (:ids) AND NOT EXISTS "
+            + "(SELECT 1 FROM task_labels tl WHERE tl.task_id = t.id AND tl.label_id = :labelId)",
+            nativeQuery = true)
+    int addLabel(@Param("ids") Collection<Long> ids, @Param("labelId") Long labelId);
+
+    @Modifying
+    @Query(value = "DELETE FROM task_labels WHERE task_id IN (:ids) AND label_id IN (:labelIds)", nativeQuery = true)
+    int removeLabels(@Param("ids") Collection<Long> ids, @Param("labelIds") Collection<Long> labelIds);
+
+    @Modifying
+    @Query(value = "DELETE FROM task_labels WHERE task_id IN (:ids)", nativeQuery = true)
+    int removeAllLabels(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("DELETE FROM Task t WHERE t.id IN :ids")
+    int deleteAllByIdIn(@Param("ids") Collection<Long> ids);
+}
@@ -0,0 +1,15 @@
+package hexlet.code.repository;
+
+import hexlet.code.model.Task;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+public interface TaskRepositoryCustom {
+    List<Long> findIds(Specification<Task> spec);
+
+    List<Task> findFiltered(String titleCont, Long assigneeId, String status, Long labelId);
+
+    // Rows of TaskRepository.SUMMARY_COLUMNS in column order
+    List<Object[]> findFilteredSummaryRows(String titleCont, Long assigneeId, String status, Long labelId);
+}
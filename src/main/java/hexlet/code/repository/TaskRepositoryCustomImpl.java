@@ -0,0 +1,114 @@
+package hexlet.code.repository;
+
+import hexlet.code.model.Task;
+import hexlet.code.specification.TaskSpecification;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+import java.util.StringJoiner;
+
+public class TaskRepositoryCustomImpl implements TaskRepositoryCustom {
+
+    private static final int TITLE = 1;
+    private static final int ASSIGNEE = 1 << 1;
+    private static final int STATUS = 1 << 2;
+    private static final int LABEL = 1 << 3;
+
+    // One JPQL string per combination of present filters, built once. Hibernate caches the parsed and
+    // translated plan per query string, so a request only binds parameters instead of building,
+    // rendering and planning a new Criteria tree with placeholder conjunctions
+    private static final String[] FILTER_QUERIES = new String[LABEL << 1];
+    // Same shapes for list views: scalar columns only, so the description column is never read
+    private static final String[] SUMMARY_QUERIES = new String[LABEL << 1];
+
+    private static final String ENTITY_SELECT = "SELECT t FROM Task t JOIN FETCH t.taskStatus s "
+            + "LEFT JOIN FETCH t.assignee a LEFT JOIN FETCH t.labels";
+    private static final String SUMMARY_SELECT = "SELECT " + TaskRepository.SUMMARY_COLUMNS
+            + " FROM Task t JOIN t.taskStatus s LEFT JOIN t.assignee a";
+
+    static {
+        for (int mask = 0; mask < FILTER_QUERIES.length; mask++) {
+            FILTER_QUERIES[mask] = compileFilterQuery(ENTITY_SELECT, mask);
+            SUMMARY_QUERIES[mask] = compileFilterQuery(SUMMARY_SELECT, mask);
+        }
+    }
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Long> findIds(Specification<Task> spec) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Task> root = query.from(Task.class);
+        query.select(root.get("id"))
+                .where(spec.toPredicate(root, query, cb))
+                .orderBy(cb.asc(root.get("id")));
+        return entityManager.createQuery(query).getResultList();
+    }
+
+    @Override
+    public List<Task> findFiltered(String titleCont, Long assigneeId, String status, Long labelId) {
+        int mask = mask(titleCont, assigneeId, status, labelId);
+        return bind(entityManager.createQuery(FILTER_QUERIES[mask], Task.class), titleCont, assigneeId, status, labelId)
+                .getResultList();
+    }
+
+    @Override
+    public List<Object[]> findFilteredSummaryRows(String titleCont, Long assigneeId, String status, Long labelId) {
+        int mask = mask(titleCont, assigneeId, status, labelId);
+        return bind(entityManager.createQuery(SUMMARY_QUERIES[mask], Object[].class), titleCont, assigneeId, status, labelId)
+                .getResultList();
+    }
+
+    private static int mask(String titleCont, Long assigneeId, String status, Long labelId) {
+        return (titleCont != null && !titleCont.isBlank() ? TITLE : 0)
+                | (assigneeId != null ? ASSIGNEE : 0)
+                | (status != null && !status.isBlank() ? STATUS : 0)
+                | (labelId != null ? LABEL : 0);
+    }
+
+    private static <T> TypedQuery<T> bind(TypedQuery<T> query, String titleCont, Long assigneeId, String status,
+                                          Long labelId) {
+        if (titleCont != null && !titleCont.isBlank()) {
+            query.setParameter("title", TaskSpecification.containsPattern(titleCont));
+        }
+        if (assigneeId != null) {
+            query.setParameter("assigneeId", assigneeId);
+        }
+        if (status != null && !status.isBlank()) {
+            query.setParameter("status", status);
+        }
+        if (labelId != null) {
+            query.setParameter("labelId", labelId);
+        }
+        return query;
+    }
+
+    private static String compileFilterQuery(String select, int mask) {
+        StringJoiner where = new StringJoiner(" AND ", " WHERE ", "").setEmptyValue("");
+        if ((mask & TITLE) != 0) {
+            where.add("LOWER(t.name) LIKE :title ESCAPE '" + TaskSpecification.LIKE_ESCAPE + "'");
+        }
+        if ((mask & ASSIGNEE) != 0) {
+            where.add("a.id = :assigneeId");
+        }
+        if ((mask & STATUS) != 0) {
+            where.add("s.slug = :status");
+        }
+        if ((mask & LABEL) != 0) {
+            // A subquery, so that the fetched labels collection is not narrowed to the filtered label
+            where.add("t.id IN (SELECT lt.id FROM Task lt JOIN lt.labels l WHERE l.id = :labelId)");
+        }
+        return select
+                + where
+                // Explicit null placement: databases disagree on the default, and the filter index sorts the same way
+                + " ORDER BY s.id ASC, t.rank ASC NULLS FIRST, t.id ASC";
+    }
+}
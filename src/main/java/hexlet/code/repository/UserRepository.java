@@ -1,11 +1,16 @@
 package hexlet.code.repository;
 
 import hexlet.code.model.User;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
+import java.util.Collection;
 import java.util.Optional;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByEmail(String email);
+
+    Page<User> findByIdIn(Collection<Long> ids, Pageable pageable);
 }
@@ -0,0 +1,64 @@
+package hexlet.code.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.time.Duration;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+@Slf4j
+public class AdaptiveBCryptPasswordEncoder extends BCryptPasswordEncoder {
+
+    public static final int MIN_STRENGTH = 4;
+    public static final int MAX_STRENGTH = 31;
+    private static final Pattern BCRYPT_PATTERN = Pattern.compile("^\\$2[aby]?\\$(\\d\\d)\\$");
+    private static final String CALIBRATION_PASSWORD = "calibration-password";
+
+    private final int strength;
+
+    public AdaptiveBCryptPasswordEncoder(int strength) {
+        super(strength);
+        this.strength = strength;
+    }
+
+    public int getStrength() {
+        return strength;
+    }
+
+    // Unlike BCryptPasswordEncoder this also asks for a re-hash when the configured cost was lowered
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        if (encodedPassword == null) {
+            return false;
+        }
+        Matcher matcher = BCRYPT_PATTERN.matcher(encodedPassword);
+        return matcher.find() && Integer.parseInt(matcher.group(1)) != strength;
+    }
+
+    // Picks the highest cost whose verification still fits into the target time, but never less than minStrength
+    public static int calibrate(Duration target, int minStrength, int maxStrength) {
+        BCryptPasswordEncoder warmUp = new BCryptPasswordEncoder(MIN_STRENGTH);
+        warmUp.matches(CALIBRATION_PASSWORD, warmUp.encode(CALIBRATION_PASSWORD));
+
+        int chosen = minStrength;
+        for (int cost = minStrength; cost <= maxStrength; cost++) {
+            BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(cost);
+            String hash = encoder.encode(CALIBRATION_PASSWORD);
+            long started = System.nanoTime();
+            encoder.matches(CALIBRATION_PASSWORD, hash);
+            Duration elapsed = Duration.ofNanos(System.nanoTime() - started);
+            log.debug("bcrypt cost {} verifies in {} ms", cost, elapsed.toMillis());
+            if (elapsed.compareTo(target) > 0) {
+                break;
+            }
+            chosen = cost;
+            // Each step doubles the work, so stop before a single measurement would take more than twice the target
+            if (elapsed.multipliedBy(2).compareTo(target) > 0) {
+                break;
+            }
+        }
+        log.info("Calibrated bcrypt cost {} for a target verification time of {} ms", chosen, target.toMillis());
+        return chosen;
+    }
+}
@@ -0,0 +1,35 @@
+package hexlet.code.service;
+
+import lombok.Getter;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Collection;
+import java.util.List;
+
+@Getter
+public class AuthenticatedUser implements UserDetails {
+    public static final String DEFAULT_ROLE = "USER";
+    private static final String ROLE_PREFIX = "ROLE_";
+
+    private final Long id;
+    private final String username;
+    private final String password;
+    private final List<GrantedAuthority> authorities;
+
+    public AuthenticatedUser(Long id, String username, String password, Collection<String> roles) {
+        this.id = id;
+        this.username = username;
+        this.password = password;
+        this.authorities = roles.stream()
+                .<GrantedAuthority>map(role -> new SimpleGrantedAuthority(ROLE_PREFIX + role))
+                .toList();
+    }
+
+    public List<String> getRoles() {
+        return authorities.stream()
+                .map(authority -> authority.getAuthority().substring(ROLE_PREFIX.length()))
+                .toList();
+    }
+}
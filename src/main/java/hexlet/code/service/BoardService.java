@@ -0,0 +1,8 @@
+package hexlet.code.service;
+
+import hexlet.code.dto.BoardDTO;
+
+public interface BoardService {
+    TaskQueryCoalescer.Result<BoardDTO> getBoard(String titleCont, Long assigneeId, String status, Long labelId,
+                                                 boolean summary);
+}
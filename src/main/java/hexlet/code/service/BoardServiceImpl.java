@@ -0,0 +1,94 @@
+package hexlet.code.service;
+
+import hexlet.code.dto.BoardColumnDTO;
+import hexlet.code.dto.BoardDTO;
+import hexlet.code.dto.TaskSummaryDTO;
+import hexlet.code.mapper.LabelMapper;
+import hexlet.code.mapper.UserMapper;
+import hexlet.code.model.Label;
+import hexlet.code.model.TaskStatus;
+import hexlet.code.model.User;
+import hexlet.code.repository.LabelRepository;
+import hexlet.code.repository.TaskStatusRepository;
+import hexlet.code.repository.UserRepository;
+import lombok.AllArgsConstructor;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@Service
+@AllArgsConstructor
+public class BoardServiceImpl implements BoardService {
+
+    private static final Comparator<TaskSummaryDTO> COLUMN_ORDER = Comparator
+            .comparing(TaskSummaryDTO::getRank, Comparator.nullsFirst(Comparator.naturalOrder()))
+            .thenComparing(TaskSummaryDTO::getIndex, Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparing(TaskSummaryDTO::getId);
+
+    private final TaskService taskService;
+    private final TaskStatusRepository taskStatusRepository;
+    private final UserRepository userRepository;
+    private final LabelRepository labelRepository;
+    private final UserMapper userMapper;
+    private final LabelMapper labelMapper;
+
+    // No transaction around the whole board: a coalesced task query may wait on another request's query, and a
+    // connection held meanwhile would sit idle
+    @Override
+    public TaskQueryCoalescer.Result<BoardDTO> getBoard(String titleCont, Long assigneeId, String status,
+                                                        Long labelId, boolean summary) {
+        Map<String, BoardColumnDTO> columns = new LinkedHashMap<>();
+        for (TaskStatus taskStatus : taskStatusRepository.findAll(Sort.by("id"))) {
+            BoardColumnDTO column = new BoardColumnDTO();
+            column.setStatusId(taskStatus.getId());
+            column.setName(taskStatus.getName());
+            column.setSlug(taskStatus.getSlug());
+            columns.put(taskStatus.getSlug(), column);
+        }
+
+        // Cards carry the full task unless the client opts into summaries, which skip the description
+        TaskQueryCoalescer.Result<? extends List<? extends TaskSummaryDTO>> listed = summary
+                ? taskService.getFilteredTaskSummaries(titleCont, assigneeId, status, labelId, true)
+                : taskService.getFilteredTasks(titleCont, assigneeId, status, labelId);
+        List<TaskSummaryDTO> tasks = new ArrayList<>(listed.value());
+        tasks.sort(COLUMN_ORDER);
+
+        Set<Long> userIds = new LinkedHashSet<>();
+        Set<Long> labelIds = new LinkedHashSet<>();
+        for (TaskSummaryDTO task : tasks) {
+            BoardColumnDTO column = columns.get(task.getStatus());
+            if (column != null) {
+                column.getTasks().add(task);
+            }
+            if (task.getAssignee_id() != null) {
+                userIds.add(task.getAssignee_id());
+            }
+            labelIds.addAll(task.getTaskLabelIds());
+        }
+
+        BoardDTO board = new BoardDTO();
+        board.setColumns(new ArrayList<>(columns.values()));
+        board.setUsers(inOrder(userIds, userRepository.findAllById(userIds).stream()
+                .collect(Collectors.toMap(User::getId, userMapper::map))));
+        board.setLabels(inOrder(labelIds, labelRepository.findAllById(labelIds).stream()
+                .collect(Collectors.toMap(Label::getId, labelMapper::map))));
+        return new TaskQueryCoalescer.Result<>(board, listed.staleAgeMs());
+    }
+
+    // Keeps the order in which the board first shows each user or label
+    private static <T> List<T> inOrder(Set<Long> ids, Map<Long, T> loaded) {
+        return ids.stream()
+                .map(loaded::get)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+}
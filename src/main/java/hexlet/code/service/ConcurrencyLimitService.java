@@ -0,0 +1,149 @@
+package hexlet.code.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+public class ConcurrencyLimitService {
+
+    public static final String AUTH_GROUP = "auth";
+    public static final String TASK_READ_GROUP = "task-read";
+    public static final String TASK_WRITE_GROUP = "task-write";
+    public static final String DEFAULT_GROUP = "default";
+    private static final List<String> GROUPS = List.of(AUTH_GROUP, TASK_READ_GROUP, TASK_WRITE_GROUP, DEFAULT_GROUP);
+
+    private final Map<String, Limit> limits;
+
+    public ConcurrencyLimitService(
+            MeterRegistry meterRegistry,
+            @Value("${concurrency-limit.initial-limit:20}") int initialLimit,
+            @Value("${concurrency-limit.min-limit:10}") int minLimit,
+            @Value("${concurrency-limit.max-limit:200}") int maxLimit,
+            @Value("${concurrency-limit.rtt-tolerance:1.5}") double rttTolerance,
+            @Value("${concurrency-limit.long-window:600}") int longWindow,
+            @Value("${concurrency-limit.smoothing:0.2}") double smoothing) {
+        Settings settings = new Settings(minLimit, maxLimit, rttTolerance, longWindow, smoothing);
+        this.limits = GROUPS.stream().collect(Collectors.toUnmodifiableMap(Function.identity(), group -> {
+            Limit limit = new Limit(settings, initialLimit,
+                    meterRegistry.counter("concurrency.shed", "group", group));
+            Gauge.builder("concurrency.limit", limit, Limit::limit).tag("group", group).register(meterRegistry);
+            Gauge.builder("concurrency.inflight", limit, Limit::inFlight).tag("group", group).register(meterRegistry);
+            return limit;
+        }));
+    }
+
+    // Returns null when the group is at its limit; the caller must complete or abandon a returned permit
+    public Permit tryAcquire(String group) {
+        Limit limit = limits.get(group);
+        if (limit == null) {
+            throw new IllegalArgumentException("Unknown concurrency group: " + group);
+        }
+        return limit.tryAcquire();
+    }
+
+    public int limit(String group) {
+        return limits.get(group).limit();
+    }
+
+    public int inFlight(String group) {
+        return limits.get(group).inFlight();
+    }
+
+    private record Settings(int minLimit, int maxLimit, double rttTolerance, int longWindow, double smoothing) {
+    }
+
+    public static final class Permit {
+        private final Limit limit;
+        private final long startNanos = System.nanoTime();
+        private final int inFlightAtStart;
+
+        private Permit(Limit limit, int inFlightAtStart) {
+            this.limit = limit;
+            this.inFlightAtStart = inFlightAtStart;
+        }
+
+        // The request ran to completion, so its latency says something about the load
+        public void complete() {
+            limit.release();
+            limit.onSample(System.nanoTime() - startNanos, inFlightAtStart);
+        }
+
+        // The request failed before producing a meaningful latency, such as on a client disconnect
+        public void abandon() {
+            limit.release();
+        }
+    }
+
+    // Gradient limit: a long-term average round trip time stands in for the latency without queueing, and each
+    // sample moves the limit by how much slower it was. Latency at the baseline grows the limit by a queue
+    // of sqrt(limit); latency above baseline * tolerance shrinks it, by at most half per sample before smoothing
+    private static final class Limit {
+        private final Settings settings;
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final Counter shed;
+        private volatile double estimatedLimit;
+        private double longRtt;
+        private long samples;
+
+        Limit(Settings settings, int initialLimit, Counter shed) {
+            this.settings = settings;
+            this.estimatedLimit = Math.clamp(initialLimit, settings.minLimit(), settings.maxLimit());
+            this.shed = shed;
+        }
+
+        Permit tryAcquire() {
+            while (true) {
+                int current = inFlight.get();
+                if (current >= limit()) {
+                    shed.increment();
+                    return null;
+                }
+                if (inFlight.compareAndSet(current, current + 1)) {
+                    return new Permit(this, current + 1);
+                }
+            }
+        }
+
+        void release() {
+            inFlight.decrementAndGet();
+        }
+
+        synchronized void onSample(long rttNanos, int inFlightAtStart) {
+            double shortRtt = Math.max(rttNanos, 1);
+            // A plain mean until the window fills, then an exponential average over roughly the window
+            samples++;
+            longRtt += (shortRtt - longRtt) / Math.min(samples, settings.longWindow());
+            // Let the baseline follow a sustained drop in latency instead of waiting out the whole window
+            if (longRtt / shortRtt > 2) {
+                longRtt *= 0.95;
+            }
+            // With less than half the limit in use the latency reflects the work, not queueing
+            double limit = estimatedLimit;
+            if (inFlightAtStart < limit / 2) {
+                return;
+            }
+
+            double gradient = Math.clamp(settings.rttTolerance() * longRtt / shortRtt, 0.5, 1.0);
+            double newLimit = limit * gradient + Math.sqrt(limit);
+            newLimit = limit * (1 - settings.smoothing()) + newLimit * settings.smoothing();
+            estimatedLimit = Math.clamp(newLimit, settings.minLimit(), settings.maxLimit());
+        }
+
+        int limit() {
+            return (int) estimatedLimit;
+        }
+
+        int inFlight() {
+            return inFlight.get();
+        }
+    }
+}
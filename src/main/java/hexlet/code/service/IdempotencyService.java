@@ -0,0 +1,250 @@
+package hexlet.code.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import hexlet.code.exception.BadRequestException;
+import hexlet.code.exception.IdempotencyConflictException;
+import hexlet.code.model.IdempotencyRecord;
+import hexlet.code.repository.IdempotencyRecordRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+@Slf4j
+@Service
+public class IdempotencyService {
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+    private static final int MAX_KEY_LENGTH = 255;
+    private static final String ANONYMOUS = "anonymous";
+
+    private final IdempotencyRecordRepository idempotencyRecordRepository;
+    private final ObjectMapper objectMapper;
+    private final Duration ttl;
+    private final long waitTimeoutMs;
+    private final boolean persistent;
+    private final Map<String, Entry> entries;
+
+    private final Counter executedCounter;
+    private final Counter replayedCounter;
+    private final Counter coalescedCounter;
+
+    public IdempotencyService(
+            IdempotencyRecordRepository idempotencyRecordRepository,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            @Value("${idempotency.max-entries:10000}") int maxEntries,
+            @Value("${idempotency.ttl:PT24H}") Duration ttl,
+            @Value("${idempotency.wait-timeout-ms:30000}") long waitTimeoutMs,
+            @Value("${idempotency.persistent:false}") boolean persistent) {
+        this.idempotencyRecordRepository = idempotencyRecordRepository;
+        this.objectMapper = objectMapper;
+        this.ttl = ttl;
+        this.waitTimeoutMs = waitTimeoutMs;
+        this.persistent = persistent;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                if (size() <= maxEntries) {
+                    return false;
+                }
+                // Evicts the least recently used completed entry; dropping an in-flight one would let a retry
+                // run the action a second time, so the map may briefly exceed the limit instead
+                Iterator<Entry> iterator = values().iterator();
+                while (iterator.hasNext()) {
+                    if (iterator.next().result().isDone()) {
+                        iterator.remove();
+                        break;
+                    }
+                }
+                return false;
+            }
+        };
+
+        this.executedCounter = meterRegistry.counter("idempotency.executed");
+        this.replayedCounter = meterRegistry.counter("idempotency.replayed");
+        this.coalescedCounter = meterRegistry.counter("idempotency.coalesced");
+        Gauge.builder("idempotency.entries", entries, IdempotencyService::sizeOf).register(meterRegistry);
+    }
+
+    public record Result<T>(T body, boolean replayed) {
+    }
+
+    public <T> Result<T> execute(String key, String operation, Object request, Class<T> type, Supplier<T> action) {
+        if (key == null || key.isBlank()) {
+            return new Result<>(action.get(), false);
+        }
+        if (key.length() > MAX_KEY_LENGTH) {
+            throw new BadRequestException(HEADER + " must not exceed " + MAX_KEY_LENGTH + " characters");
+        }
+
+        String id = hash(currentPrincipal() + '\n' + operation + '\n' + key);
+        String fingerprint = hash(serialize(request));
+        Instant now = Instant.now();
+
+        Entry entry;
+        boolean owner = false;
+        synchronized (entries) {
+            entry = entries.get(id);
+            if (entry == null || entry.isExpired(now)) {
+                entry = new Entry(fingerprint, new CompletableFuture<>(), now.plus(ttl));
+                entries.put(id, entry);
+                owner = true;
+            }
+        }
+
+        if (!entry.fingerprint().equals(fingerprint)) {
+            throw new IdempotencyConflictException(HEADER + " was already used with a different request");
+        }
+        if (!owner) {
+            return new Result<>(type.cast(await(entry)), true);
+        }
+
+        try {
+            T stored = persistent ? loadPersisted(id, fingerprint, type) : null;
+            if (stored != null) {
+                entry.result().complete(stored);
+                replayedCounter.increment();
+                return new Result<>(stored, true);
+            }
+
+            T body = action.get();
+            executedCounter.increment();
+            entry.result().complete(body);
+            if (persistent) {
+                persist(id, fingerprint, body, now);
+            }
+            return new Result<>(body, false);
+        } catch (RuntimeException e) {
+            // Failed attempts, including a failed lookup of the stored response, are not remembered so that the
+            // client can retry with the same key
+            synchronized (entries) {
+                entries.remove(id, entry);
+            }
+            entry.result().completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${idempotency.purge-interval-ms:60000}")
+    public void purge() {
+        Instant now = Instant.now();
+        synchronized (entries) {
+            entries.values().removeIf(entry -> entry.result().isDone() && entry.isExpired(now));
+        }
+        if (persistent) {
+            idempotencyRecordRepository.deleteExpired(now);
+        }
+    }
+
+    public int size() {
+        return sizeOf(entries);
+    }
+
+    private static int sizeOf(Map<String, Entry> entries) {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    private Object await(Entry entry) {
+        if (entry.result().isDone()) {
+            replayedCounter.increment();
+        } else {
+            coalescedCounter.increment();
+        }
+        try {
+            return entry.result().get(waitTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            throw new IdempotencyConflictException("A request with this " + HEADER + " is still being processed");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IdempotencyConflictException("Interrupted while waiting for the original request");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private <T> T loadPersisted(String id, String fingerprint, Class<T> type) {
+        return idempotencyRecordRepository.findByIdAndExpiresAtAfter(id, Instant.now())
+                .map(stored -> {
+                    if (!stored.getFingerprint().equals(fingerprint)) {
+                        throw new IdempotencyConflictException(HEADER + " was already used with a different request");
+                    }
+                    try {
+                        return objectMapper.readValue(stored.getResponse(), type);
+                    } catch (JsonProcessingException e) {
+                        log.warn("Cannot read stored idempotent response {}", id, e);
+                        return null;
+                    }
+                })
+                .orElse(null);
+    }
+
+    private void persist(String id, String fingerprint, Object body, Instant now) {
+        try {
+            IdempotencyRecord stored = new IdempotencyRecord();
+            stored.setId(id);
+            stored.setFingerprint(fingerprint);
+            stored.setResponse(serialize(body));
+            stored.setCreatedAt(now);
+            stored.setExpiresAt(now.plus(ttl));
+            idempotencyRecordRepository.save(stored);
+        } catch (RuntimeException e) {
+            log.warn("Cannot store idempotent response {}", id, e);
+        }
+    }
+
+    private String serialize(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize idempotent request", e);
+        }
+    }
+
+    private static String currentPrincipal() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null && authentication.isAuthenticated() ? authentication.getName() : ANONYMOUS;
+    }
+
+    private static String hash(String value) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private record Entry(String fingerprint, CompletableFuture<Object> result, Instant expiresAt) {
+        boolean isExpired(Instant now) {
+            return expiresAt.isBefore(now);
+        }
+    }
+}
@@ -1,14 +1,16 @@
 package hexlet.code.service;
 
 import hexlet.code.dto.LabelDTO;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 
-import java.util.List;
+import java.util.Collection;
 
 public interface LabelService {
-    List<LabelDTO> getAllLabels();
+    Page<LabelDTO> getAllLabels(Collection<Long> ids, Collection<String> fields, Pageable pageable);
     LabelDTO getLabelById(Long id);
     LabelDTO getLabelByName(String name);
     LabelDTO createLabel(String name, String username);
-    LabelDTO updateLabel(Long id, String name, String username);
+    LabelDTO updateLabel(Long id, String name, String username, Long expectedVersion);
     void deleteLabel(Long id, String username);
 }
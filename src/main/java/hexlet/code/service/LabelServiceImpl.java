@@ -2,45 +2,63 @@ package hexlet.code.service;
 
 import hexlet.code.dto.LabelDTO;
 import hexlet.code.exception.ForbiddenException;
+import hexlet.code.exception.PreconditionFailedException;
 import hexlet.code.exception.ResourceNotFoundException;
 import hexlet.code.mapper.LabelMapper;
 import hexlet.code.model.Label;
+import hexlet.code.repository.EntityProjections;
 import hexlet.code.repository.LabelRepository;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
-import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Collection;
 
 @Service
 public class LabelServiceImpl implements LabelService {
 
     private final LabelRepository labelRepository;
     private final LabelMapper labelMapper;
+    private final EntityProjections entityProjections;
+    private final SuggestIndex suggestIndex;
+    private final TaskQueryCoalescer taskQueryCoalescer;
     
-    public LabelServiceImpl(LabelRepository labelRepository, LabelMapper labelMapper) {
+    public LabelServiceImpl(LabelRepository labelRepository, LabelMapper labelMapper,
+                            EntityProjections entityProjections, SuggestIndex suggestIndex,
+                            TaskQueryCoalescer taskQueryCoalescer) {
         this.labelRepository = labelRepository;
         this.labelMapper = labelMapper;
+        this.entityProjections = entityProjections;
+        this.suggestIndex = suggestIndex;
+        this.taskQueryCoalescer = taskQueryCoalescer;
     }
 
-    public List<LabelDTO> getAllLabels() {
-        return labelRepository.findAll().stream()
-                .map(labelMapper::map)
-                .collect(Collectors.toList());
+    @Transactional(readOnly = true)
+    public Page<LabelDTO> getAllLabels(Collection<Long> ids, Collection<String> fields, Pageable pageable) {
+        if (fields != null) {
+            return entityProjections.findAll(Label.class, fields, ids, pageable).map(labelMapper::map);
+        }
+        Page<Label> page = ids == null ? labelRepository.findAll(pageable) : labelRepository.findByIdIn(ids, pageable);
+        return page.map(labelMapper::map);
     }
 
+    @Transactional(readOnly = true)
     public LabelDTO getLabelById(Long id) {
         Label label = labelRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Label not found with id: " + id));
         return labelMapper.map(label);
     }
 
+    @Transactional(readOnly = true)
     public LabelDTO getLabelByName(String name) {
         Label label = labelRepository.findByName(name)
                 .orElseThrow(() -> new ResourceNotFoundException("Label not found with name: " + name));
         return labelMapper.map(label);
     }
 
+    @Transactional
     public LabelDTO createLabel(String name, String username) {
         Label label = new Label();
         label.setName(name);
@@ -49,16 +67,21 @@ public class LabelServiceImpl implements LabelService {
         return labelMapper.map(saveLabel(label));
     }
 
-    public LabelDTO updateLabel(Long id, String name, String username) {
+    @Transactional
+    public LabelDTO updateLabel(Long id, String name, String username, Long expectedVersion) {
         Label label = getLabelEntityById(id);
+        PreconditionFailedException.checkVersion(expectedVersion, label.getVersion());
 
         if (username.equals("testuser@example.com") && label.getName().equals("Another User's Label")) {
             throw new ForbiddenException("You are not authorized to update this label");
         }
         label.setName(name);
-        return labelMapper.map(saveLabel(label));
+        LabelDTO updated = labelMapper.map(saveLabel(label));
+        taskQueryCoalescer.invalidateAfterCommit();
+        return updated;
     }
 
+    @Transactional
     public void deleteLabel(Long id, String username) {
         Label label = getLabelEntityById(id);
 
@@ -71,10 +94,14 @@ public class LabelServiceImpl implements LabelService {
         }
 
         labelRepository.deleteById(id);
+        suggestIndex.labelDeleted(id);
+        taskQueryCoalescer.invalidateAfterCommit();
     }
 
     private Label saveLabel(Label label) {
-        return labelRepository.save(label);
+        Label saved = labelRepository.saveAndFlush(label);
+        suggestIndex.labelSaved(saved);
+        return saved;
     }
 
     private Label getLabelEntityById(Long id) {
@@ -0,0 +1,184 @@
+package hexlet.code.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+@Service
+public class LoginAttemptService {
+
+    private static final int DEPTH = 4;
+    private static final int MAX_BACKOFF_SHIFT = 20;
+
+    private final int mask;
+    private final long[] seeds = new long[DEPTH];
+    private final long windowMs;
+    private final int accountFreeAttempts;
+    private final int ipFreeAttempts;
+    private final long baseDelayMs;
+    private final long maxDelayMs;
+
+    // Failures are counted in a count-min sketch per window; the previous window decays linearly
+    private volatile AtomicIntegerArray currentWindow;
+    private volatile AtomicIntegerArray previousWindow;
+    private volatile long windowStart;
+    // Same layout, but each cell keeps the latest "blocked until" time written to it
+    private final AtomicLongArray blockedUntil;
+
+    private final Counter failureCounter;
+    private final Counter blockedCounter;
+
+    public LoginAttemptService(
+            MeterRegistry meterRegistry,
+            @Value("${login-throttle.sketch-width:16384}") int sketchWidth,
+            @Value("${login-throttle.window:PT15M}") Duration window,
+            @Value("${login-throttle.account.free-attempts:5}") int accountFreeAttempts,
+            @Value("${login-throttle.ip.free-attempts:20}") int ipFreeAttempts,
+            @Value("${login-throttle.base-delay:PT1S}") Duration baseDelay,
+            @Value("${login-throttle.max-delay:PT15M}") Duration maxDelay) {
+        int width = Integer.highestOneBit(Math.max(sketchWidth, 64));
+        this.mask = width - 1;
+        for (int i = 0; i < DEPTH; i++) {
+            // Random seeds keep an attacker from crafting usernames that collide with a victim's cells
+            seeds[i] = ThreadLocalRandom.current().nextLong();
+        }
+        this.windowMs = window.toMillis();
+        this.accountFreeAttempts = accountFreeAttempts;
+        this.ipFreeAttempts = ipFreeAttempts;
+        this.baseDelayMs = baseDelay.toMillis();
+        this.maxDelayMs = maxDelay.toMillis();
+
+        this.currentWindow = new AtomicIntegerArray(DEPTH * width);
+        this.previousWindow = new AtomicIntegerArray(DEPTH * width);
+        this.windowStart = System.currentTimeMillis();
+        this.blockedUntil = new AtomicLongArray(DEPTH * width);
+
+        this.failureCounter = meterRegistry.counter("login.failures");
+        this.blockedCounter = meterRegistry.counter("login.blocked");
+    }
+
+    // Two stages: a username is only throttled together with the address guessing it, so nobody can lock
+    // a victim out from elsewhere, and each address has its own, larger budget across all usernames.
+    // Returns 0 when the attempt may proceed, otherwise the milliseconds until it may be retried
+    public long checkAllowed(String username, String ip) {
+        long now = System.currentTimeMillis();
+        long waitMs = Math.max(blockedFor(accountKey(username, ip), now), blockedFor(ipKey(ip), now));
+        if (waitMs > 0) {
+            blockedCounter.increment();
+        }
+        return waitMs;
+    }
+
+    public void recordFailure(String username, String ip) {
+        long now = System.currentTimeMillis();
+        rotateIfNeeded(now);
+        failureCounter.increment();
+        recordFailure(accountKey(username, ip), accountFreeAttempts, now);
+        recordFailure(ipKey(ip), ipFreeAttempts, now);
+    }
+
+    // Forgets the failures of this username from this address. A count-min sketch cannot tell its own count
+    // apart from colliding keys, so it takes away the estimate: that is never less than the key's own count,
+    // and it only eats into other keys' counts when they collide with it in every row
+    public void recordSuccess(String username, String ip) {
+        int[] cells = cells(accountKey(username, ip));
+        for (AtomicIntegerArray window : new AtomicIntegerArray[] {currentWindow, previousWindow}) {
+            int estimate = Integer.MAX_VALUE;
+            for (int cell : cells) {
+                estimate = Math.min(estimate, window.get(cell));
+            }
+            if (estimate > 0) {
+                int taken = estimate;
+                for (int cell : cells) {
+                    window.accumulateAndGet(cell, taken, (count, amount) -> Math.max(0, count - amount));
+                }
+            }
+        }
+    }
+
+    private void recordFailure(String key, int freeAttempts, long now) {
+        int[] cells = cells(key);
+        AtomicIntegerArray current = currentWindow;
+        for (int cell : cells) {
+            current.incrementAndGet(cell);
+        }
+
+        long failures = estimate(cells, now);
+        if (failures < freeAttempts) {
+            return;
+        }
+        int shift = (int) Math.min(failures - freeAttempts, MAX_BACKOFF_SHIFT);
+        long until = now + Math.min(baseDelayMs << shift, maxDelayMs);
+        for (int cell : cells) {
+            blockedUntil.accumulateAndGet(cell, until, Math::max);
+        }
+    }
+
+    private long blockedFor(String key, long now) {
+        long until = Long.MAX_VALUE;
+        for (int cell : cells(key)) {
+            until = Math.min(until, blockedUntil.get(cell));
+        }
+        return Math.max(0, until - now);
+    }
+
+    private long estimate(int[] cells, long now) {
+        AtomicIntegerArray current = currentWindow;
+        AtomicIntegerArray previous = previousWindow;
+        double previousWeight = Math.max(0, 1.0 - (double) (now - windowStart) / windowMs);
+        long min = Long.MAX_VALUE;
+        for (int cell : cells) {
+            long count = current.get(cell) + Math.round(previous.get(cell) * previousWeight);
+            min = Math.min(min, count);
+        }
+        return min;
+    }
+
+    private void rotateIfNeeded(long now) {
+        if (now - windowStart < windowMs) {
+            return;
+        }
+        synchronized (this) {
+            if (now - windowStart < windowMs) {
+                return;
+            }
+            boolean skippedWindow = now - windowStart >= 2 * windowMs;
+            previousWindow = skippedWindow ? new AtomicIntegerArray(currentWindow.length()) : currentWindow;
+            currentWindow = new AtomicIntegerArray(previousWindow.length());
+            windowStart = now;
+        }
+    }
+
+    private int[] cells(String key) {
+        int[] cells = new int[DEPTH];
+        for (int row = 0; row < DEPTH; row++) {
+            long hash = seeds[row];
+            for (int i = 0; i < key.length(); i++) {
+                hash = (hash ^ key.charAt(i)) * 0x100000001b3L;
+            }
+            cells[row] = row * (mask + 1) + (int) (mix(hash) & mask);
+        }
+        return cells;
+    }
+
+    private static long mix(long value) {
+        value = (value ^ (value >>> 33)) * 0xff51afd7ed558ccdL;
+        value = (value ^ (value >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        return value ^ (value >>> 33);
+    }
+
+    private static String accountKey(String username, String ip) {
+        return "u:" + (username == null ? "" : username.trim().toLowerCase(Locale.ROOT)) + "|ip:" + ip;
+    }
+
+    private static String ipKey(String ip) {
+        return "ip:" + ip;
+    }
+}
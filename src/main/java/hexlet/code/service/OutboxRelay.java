@@ -0,0 +1,221 @@
+package hexlet.code.service;
+
+import hexlet.code.model.OutboxEvent;
+import hexlet.code.outbox.OutboxSink;
+import hexlet.code.outbox.TaskDomainEvent;
+import hexlet.code.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Service
+public class OutboxRelay {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final List<OutboxSink> sinks;
+    private final ExecutorService executor;
+    private final ScheduledExecutorService scheduler;
+    private final long intervalMs;
+    private final int batchSize;
+    private final int parallelism;
+    private final Duration retention;
+    private final int maxAttempts;
+    private final Duration retryBackoff;
+    private final Duration maxRetryBackoff;
+
+    private final AtomicLong lagMillis = new AtomicLong();
+    private final AtomicLong pending = new AtomicLong();
+    private final AtomicLong deadLettered = new AtomicLong();
+    private final Counter publishedCounter;
+    private final Counter failedCounter;
+    private final Counter deadLetteredCounter;
+
+    public OutboxRelay(
+            OutboxEventRepository outboxEventRepository,
+            List<OutboxSink> sinks,
+            MeterRegistry meterRegistry,
+            @Value("${outbox.relay.interval-ms:1000}") long intervalMs,
+            @Value("${outbox.relay.batch-size:200}") int batchSize,
+            @Value("${outbox.relay.parallelism:4}") int parallelism,
+            @Value("${outbox.retention-hours:24}") long retentionHours,
+            @Value("${outbox.relay.max-attempts:10}") int maxAttempts,
+            @Value("${outbox.relay.retry-backoff:PT1S}") Duration retryBackoff,
+            @Value("${outbox.relay.max-retry-backoff:PT5M}") Duration maxRetryBackoff) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.sinks = sinks;
+        this.intervalMs = intervalMs;
+        this.batchSize = batchSize;
+        this.parallelism = parallelism;
+        this.retention = Duration.ofHours(retentionHours);
+        this.maxAttempts = maxAttempts;
+        this.retryBackoff = retryBackoff;
+        this.maxRetryBackoff = maxRetryBackoff;
+        this.executor = Executors.newFixedThreadPool(parallelism);
+        // Own thread, so a slow sink does not hold up the shared @Scheduled jobs
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> new Thread(runnable, "outbox-relay"));
+
+        this.publishedCounter = meterRegistry.counter("outbox.published");
+        this.failedCounter = meterRegistry.counter("outbox.failed");
+        this.deadLetteredCounter = meterRegistry.counter("outbox.dead-lettered");
+        Gauge.builder("outbox.lag.seconds", lagMillis, lag -> lag.get() / 1000.0).register(meterRegistry);
+        Gauge.builder("outbox.pending", pending, AtomicLong::get).register(meterRegistry);
+        Gauge.builder("outbox.parked", deadLettered, AtomicLong::get).register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        scheduler.scheduleWithFixedDelay(this::relaySafely, 0, intervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    public synchronized void relay() {
+        List<OutboxEvent> batch = outboxEventRepository.findDue(Instant.now(), Limit.of(batchSize));
+        if (!batch.isEmpty()) {
+            dispatch(batch);
+        }
+        updateLag();
+    }
+
+    @Scheduled(fixedDelayString = "${outbox.purge-interval-ms:3600000}")
+    public void purge() {
+        outboxEventRepository.deletePublishedBefore(Instant.now().minus(retention));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdown();
+        executor.shutdown();
+    }
+
+    // An exception would cancel the scheduled task for good
+    private void relaySafely() {
+        try {
+            relay();
+        } catch (Exception e) {
+            log.error("Outbox relay run failed", e);
+        }
+    }
+
+    private void dispatch(List<OutboxEvent> batch) {
+        // Events of one task always land in the same partition, so they are delivered in order
+        Map<Integer, List<OutboxEvent>> partitions = batch.stream()
+                .collect(Collectors.groupingBy(
+                        event -> Math.floorMod(event.getAggregateId().hashCode(), parallelism),
+                        TreeMap::new,
+                        Collectors.toList()));
+
+        List<Future<PartitionResult>> futures = partitions.values().stream()
+                .map(partition -> executor.submit(() -> publishInOrder(partition)))
+                .toList();
+
+        List<Long> published = new ArrayList<>();
+        List<OutboxEvent> failed = new ArrayList<>();
+        for (Future<PartitionResult> future : futures) {
+            try {
+                PartitionResult result = future.get();
+                published.addAll(result.published());
+                failed.addAll(result.failed());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (ExecutionException e) {
+                log.error("Outbox partition failed", e.getCause());
+            }
+        }
+
+        if (!published.isEmpty()) {
+            outboxEventRepository.markPublished(published, Instant.now());
+            publishedCounter.increment(published.size());
+        }
+        Instant now = Instant.now();
+        for (OutboxEvent event : failed) {
+            int attempts = event.getAttempts() + 1;
+            if (attempts >= maxAttempts) {
+                // Parked, so later events of the same task are no longer held back by it
+                log.error("Outbox event {} of task {} failed {} times, giving up",
+                        event.getId(), event.getAggregateId(), attempts);
+                outboxEventRepository.markFailed(event.getId(), attempts, now);
+                deadLetteredCounter.increment();
+            } else {
+                outboxEventRepository.scheduleRetry(event.getId(), attempts, now.plus(backoff(attempts)));
+            }
+        }
+        failedCounter.increment(failed.size());
+    }
+
+    // Doubles with every attempt, up to the configured maximum
+    private Duration backoff(int attempts) {
+        Duration backoff = retryBackoff.multipliedBy(1L << Math.min(attempts - 1, 20));
+        return backoff.compareTo(maxRetryBackoff) > 0 ? maxRetryBackoff : backoff;
+    }
+
+    private PartitionResult publishInOrder(List<OutboxEvent> partition) {
+        List<Long> published = new ArrayList<>();
+        List<OutboxEvent> failed = new ArrayList<>();
+        Set<Long> blockedAggregates = new HashSet<>();
+
+        for (OutboxEvent event : partition) {
+            if (blockedAggregates.contains(event.getAggregateId())) {
+                continue;
+            }
+            try {
+                TaskDomainEvent domainEvent = toDomainEvent(event);
+                for (OutboxSink sink : sinks) {
+                    sink.publish(domainEvent);
+                }
+                published.add(event.getId());
+            } catch (Exception e) {
+                log.warn("Failed to publish outbox event {} (attempt {}): {}",
+                        event.getId(), event.getAttempts() + 1, e.getMessage());
+                blockedAggregates.add(event.getAggregateId());
+                failed.add(event);
+            }
+        }
+        return new PartitionResult(published, failed);
+    }
+
+    private void updateLag() {
+        pending.set(outboxEventRepository.countByPublishedAtIsNullAndFailedAtIsNull());
+        deadLettered.set(outboxEventRepository.countByFailedAtIsNotNull());
+        lagMillis.set(outboxEventRepository.findFirstByPublishedAtIsNullAndFailedAtIsNullOrderByIdAsc()
+                .map(oldest -> Duration.between(oldest.getCreatedAt(), Instant.now()).toMillis())
+                .orElse(0L));
+    }
+
+    private TaskDomainEvent toDomainEvent(OutboxEvent event) {
+        return new TaskDomainEvent(
+                event.getId(),
+                event.getEventType(),
+                event.getAggregateId(),
+                event.getPayload(),
+                event.getCreatedAt());
+    }
+
+    private record PartitionResult(List<Long> published, List<OutboxEvent> failed) {
+    }
+}
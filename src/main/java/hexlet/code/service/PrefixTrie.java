@@ -0,0 +1,150 @@
+package hexlet.code.service;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Case-insensitive prefix index from terms to values. Lookups walk the prefix and then the subtree breadth-first,
+// so shorter completions come first and a query stops as soon as it has enough distinct values
+public class PrefixTrie<T> {
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Node root = new Node();
+    private final Map<Long, Entry<T>> entries = new HashMap<>();
+
+    public void put(long id, T value, Collection<String> terms) {
+        Set<String> normalized = new LinkedHashSet<>();
+        for (String term : terms) {
+            if (term != null && !term.isBlank()) {
+                normalized.add(normalize(term));
+            }
+        }
+        lock.writeLock().lock();
+        try {
+            removeLocked(id);
+            entries.put(id, new Entry<>(value, normalized));
+            for (String term : normalized) {
+                Node node = root;
+                for (int i = 0; i < term.length(); i++) {
+                    node = node.children.computeIfAbsent(term.charAt(i), key -> new Node());
+                }
+                node.ids.add(id);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long id) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public List<T> find(String prefix, int limit) {
+        String normalized = prefix == null ? "" : normalize(prefix);
+        lock.readLock().lock();
+        try {
+            Node node = root;
+            for (int i = 0; i < normalized.length() && node != null; i++) {
+                node = node.children.get(normalized.charAt(i));
+            }
+            if (node == null) {
+                return List.of();
+            }
+
+            Set<Long> ids = new LinkedHashSet<>();
+            Queue<Node> queue = new ArrayDeque<>();
+            queue.add(node);
+            while (!queue.isEmpty() && ids.size() < limit) {
+                Node current = queue.poll();
+                for (Long id : current.ids) {
+                    ids.add(id);
+                    if (ids.size() == limit) {
+                        break;
+                    }
+                }
+                queue.addAll(current.children.values());
+            }
+
+            List<T> result = new ArrayList<>(ids.size());
+            ids.forEach(id -> result.add(entries.get(id).value()));
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Swaps in the contents of another trie, so a rebuild never shows readers a half-filled index
+    public void replaceWith(PrefixTrie<T> other) {
+        lock.writeLock().lock();
+        try {
+            root.children.clear();
+            root.children.putAll(other.root.children);
+            root.ids.clear();
+            root.ids.addAll(other.root.ids);
+            entries.clear();
+            entries.putAll(other.entries);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void removeLocked(long id) {
+        Entry<T> entry = entries.remove(id);
+        if (entry == null) {
+            return;
+        }
+        for (String term : entry.terms()) {
+            remove(root, term, 0, id);
+        }
+    }
+
+    // Returns true when the node became empty and can be dropped by its parent
+    private static boolean remove(Node node, String term, int depth, long id) {
+        if (depth == term.length()) {
+            node.ids.remove(id);
+        } else {
+            Node child = node.children.get(term.charAt(depth));
+            if (child != null && remove(child, term, depth + 1, id)) {
+                node.children.remove(term.charAt(depth));
+            }
+        }
+        return node.ids.isEmpty() && node.children.isEmpty();
+    }
+
+    private static String normalize(String term) {
+        return term.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private record Entry<T>(T value, Set<String> terms) {
+    }
+
+    private static final class Node {
+        private final TreeMap<Character, Node> children = new TreeMap<>();
+        private final Set<Long> ids = new TreeSet<>();
+    }
+}
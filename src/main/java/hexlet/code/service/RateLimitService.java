@@ -0,0 +1,124 @@
+package hexlet.code.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Slf4j
+@Service
+public class RateLimitService {
+
+    public static final String API_POLICY = "api";
+    public static final String LOGIN_POLICY = "login";
+    private static final String OVERFLOW_KEY = "overflow";
+
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Policy> policies;
+    private final Map<String, Bucket> buckets = new ConcurrentHashMap<>();
+    private final int maxKeys;
+    private final long idleNanos;
+
+    public RateLimitService(
+            MeterRegistry meterRegistry,
+            @Value("${rate-limit.api.capacity:100}") int apiCapacity,
+            @Value("${rate-limit.api.refill-interval:PT0.02S}") Duration apiRefillInterval,
+            @Value("${rate-limit.login.capacity:20}") int loginCapacity,
+            @Value("${rate-limit.login.refill-interval:PT3S}") Duration loginRefillInterval,
+            @Value("${rate-limit.max-keys:100000}") int maxKeys,
+            @Value("${rate-limit.idle-timeout:PT10M}") Duration idleTimeout) {
+        this.meterRegistry = meterRegistry;
+        this.policies = Map.of(
+                API_POLICY, new Policy(apiCapacity, apiRefillInterval.toNanos()),
+                LOGIN_POLICY, new Policy(loginCapacity, loginRefillInterval.toNanos()));
+        this.maxKeys = maxKeys;
+        this.idleNanos = idleTimeout.toNanos();
+
+        Gauge.builder("ratelimit.keys", buckets, Map::size).register(meterRegistry);
+    }
+
+    // Returns 0 when a token was taken, otherwise the nanoseconds until the next one becomes available
+    public long tryAcquire(String policyName, String key) {
+        Policy policy = policies.get(policyName);
+        Bucket bucket = bucket(policyName + ':' + key);
+        long waitNanos = bucket.tryAcquire(policy, System.nanoTime());
+        if (waitNanos > 0) {
+            // Keys are emails and addresses, far too many for a tag, so they only go to the log
+            log.debug("Rate limit {} rejected {}", policyName, key);
+            meterRegistry.counter("ratelimit.rejected", "policy", policyName, "key_type", keyType(key)).increment();
+        }
+        return waitNanos;
+    }
+
+    // A bucket whose arrival time is in the past is full, so dropping it loses no state
+    @Scheduled(fixedDelayString = "${rate-limit.eviction-interval-ms:60000}")
+    public void evictIdle() {
+        long now = System.nanoTime();
+        buckets.values().removeIf(bucket -> now - bucket.theoreticalArrival() > idleNanos);
+    }
+
+    public int size() {
+        return buckets.size();
+    }
+
+    private Bucket bucket(String key) {
+        Bucket bucket = buckets.get(key);
+        if (bucket != null) {
+            return bucket;
+        }
+        if (buckets.size() >= maxKeys) {
+            evictIdle();
+            if (buckets.size() >= maxKeys) {
+                log.debug("Rate limiter is tracking {} keys, sharing one bucket for new keys", buckets.size());
+                return buckets.computeIfAbsent(OVERFLOW_KEY, k -> new Bucket(System.nanoTime()));
+            }
+        }
+        return buckets.computeIfAbsent(key, k -> new Bucket(System.nanoTime()));
+    }
+
+    // "user" or "ip", from keys such as "user:alice@example.com"
+    private static String keyType(String key) {
+        int separator = key.indexOf(':');
+        return separator > 0 ? key.substring(0, separator) : "other";
+    }
+
+    private record Policy(int capacity, long refillNanos) {
+        long burstNanos() {
+            return refillNanos * capacity;
+        }
+    }
+
+    // Generic cell rate algorithm: a token bucket kept as one "theoretical arrival time", updated by CAS
+    private static final class Bucket {
+        private final AtomicLong arrival;
+
+        Bucket(long now) {
+            this.arrival = new AtomicLong(now);
+        }
+
+        long tryAcquire(Policy policy, long now) {
+            while (true) {
+                long current = arrival.get();
+                long next = Math.max(current, now) + policy.refillNanos();
+                long excess = next - now - policy.burstNanos();
+                if (excess > 0) {
+                    return excess;
+                }
+                if (arrival.compareAndSet(current, next)) {
+                    return 0;
+                }
+            }
+        }
+
+        long theoreticalArrival() {
+            return arrival.get();
+        }
+    }
+}
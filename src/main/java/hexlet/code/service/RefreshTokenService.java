@@ -0,0 +1,109 @@
+package hexlet.code.service;
+
+import hexlet.code.dto.TokenPairDTO;
+import hexlet.code.exception.InvalidTokenException;
+import hexlet.code.model.RefreshToken;
+import hexlet.code.repository.RefreshTokenRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.HexFormat;
+
+@Slf4j
+@Service
+public class RefreshTokenService {
+
+    private static final int TOKEN_BYTES = 32;
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final JwtService jwtService;
+    private final UserDetailsService userDetailsService;
+    private final Duration ttl;
+    private final SecureRandom random = new SecureRandom();
+
+    public RefreshTokenService(
+            RefreshTokenRepository refreshTokenRepository,
+            JwtService jwtService,
+            UserDetailsService userDetailsService,
+            @Value("${jwt.refresh-expiration:PT720H}") Duration ttl) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.jwtService = jwtService;
+        this.userDetailsService = userDetailsService;
+        this.ttl = ttl;
+    }
+
+    public String issue(String email) {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        random.nextBytes(bytes);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+
+        Instant now = Instant.now();
+        RefreshToken refreshToken = new RefreshToken();
+        refreshToken.setId(hash(token));
+        refreshToken.setUserEmail(email);
+        refreshToken.setCreatedAt(now);
+        refreshToken.setExpiresAt(now.plus(ttl));
+        refreshTokenRepository.save(refreshToken);
+        return token;
+    }
+
+    // The token has 256 random bits, so a SHA-256 lookup is enough; no bcrypt on this path
+    public TokenPairDTO refresh(String token) {
+        String id = hash(token);
+        RefreshToken stored = refreshTokenRepository.findById(id)
+                .filter(refreshToken -> refreshToken.getExpiresAt().isAfter(Instant.now()))
+                .orElseThrow(() -> new InvalidTokenException("Invalid or expired refresh token"));
+
+        // Each refresh token is single-use; seeing a used one again means it leaked, so end every session
+        if (refreshTokenRepository.revoke(id, Instant.now()) == 0) {
+            log.warn("Reuse of a rotated refresh token for {}, revoking all its sessions", stored.getUserEmail());
+            refreshTokenRepository.revokeAllByUserEmail(stored.getUserEmail(), Instant.now());
+            throw new InvalidTokenException("Invalid or expired refresh token");
+        }
+
+        UserDetails userDetails;
+        try {
+            userDetails = userDetailsService.loadUserByUsername(stored.getUserEmail());
+        } catch (UsernameNotFoundException e) {
+            throw new InvalidTokenException("Invalid or expired refresh token");
+        }
+        return new TokenPairDTO(jwtService.generateToken(userDetails), issue(userDetails.getUsername()),
+                jwtService.getExpiration() / 1000);
+    }
+
+    public void revoke(String token, String email) {
+        refreshTokenRepository.findById(hash(token))
+                .filter(refreshToken -> refreshToken.getUserEmail().equals(email))
+                .ifPresent(refreshToken -> refreshTokenRepository.revoke(refreshToken.getId(), Instant.now()));
+    }
+
+    public void revokeAll(String email) {
+        refreshTokenRepository.revokeAllByUserEmail(email, Instant.now());
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.refresh-purge-interval-ms:3600000}")
+    public void purge() {
+        refreshTokenRepository.deleteExpired(Instant.now());
+    }
+
+    private static String hash(String value) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
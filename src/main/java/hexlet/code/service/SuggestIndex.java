@@ -0,0 +1,153 @@
+package hexlet.code.service;
+
+import hexlet.code.dto.LabelSuggestionDTO;
+import hexlet.code.dto.UserSuggestionDTO;
+import hexlet.code.model.Label;
+import hexlet.code.model.User;
+import hexlet.code.repository.LabelRepository;
+import hexlet.code.repository.UserRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// In-memory prefix indexes behind the assignee and label pickers; suggestions never query the database
+@Slf4j
+@Service
+public class SuggestIndex {
+
+    private final UserRepository userRepository;
+    private final LabelRepository labelRepository;
+    private final PrefixTrie<UserSuggestionDTO> users = new PrefixTrie<>();
+    private final PrefixTrie<LabelSuggestionDTO> labels = new PrefixTrie<>();
+    private final Timer lookupTimer;
+    private final Object changeLock = new Object();
+    // Changes committed while a rebuild loads, guarded by changeLock
+    private List<Runnable> changedDuringRebuild;
+
+    public SuggestIndex(UserRepository userRepository, LabelRepository labelRepository, MeterRegistry meterRegistry) {
+        this.userRepository = userRepository;
+        this.labelRepository = labelRepository;
+        this.lookupTimer = meterRegistry.timer("suggest.lookups");
+        Gauge.builder("suggest.users.size", users, PrefixTrie::size).register(meterRegistry);
+        Gauge.builder("suggest.labels.size", labels, PrefixTrie::size).register(meterRegistry);
+    }
+
+    public List<UserSuggestionDTO> suggestUsers(String query, int limit) {
+        return lookupTimer.record(() -> users.find(query, limit));
+    }
+
+    public List<LabelSuggestionDTO> suggestLabels(String query, int limit) {
+        return lookupTimer.record(() -> labels.find(query, limit));
+    }
+
+    // The values are captured now but applied only after commit, so a rolled back write never shows up
+    public void userSaved(User user) {
+        UserSuggestionDTO suggestion = toSuggestion(user);
+        List<String> terms = terms(user);
+        afterCommit(() -> apply(() -> users.put(suggestion.getId(), suggestion, terms)));
+    }
+
+    public void userDeleted(Long id) {
+        afterCommit(() -> apply(() -> users.remove(id)));
+    }
+
+    public void labelSaved(Label label) {
+        LabelSuggestionDTO suggestion = new LabelSuggestionDTO(label.getId(), label.getName());
+        afterCommit(() -> apply(() -> labels.put(suggestion.getId(), suggestion, List.of(label.getName()))));
+    }
+
+    public void labelDeleted(Long id) {
+        afterCommit(() -> apply(() -> labels.remove(id)));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        synchronized (changeLock) {
+            changedDuringRebuild = new ArrayList<>();
+        }
+
+        long started = System.nanoTime();
+        PrefixTrie<UserSuggestionDTO> loadedUsers = new PrefixTrie<>();
+        PrefixTrie<LabelSuggestionDTO> loadedLabels = new PrefixTrie<>();
+        try {
+            for (User user : userRepository.findAll()) {
+                loadedUsers.put(user.getId(), toSuggestion(user), terms(user));
+            }
+            for (Label label : labelRepository.findAll()) {
+                loadedLabels.put(label.getId(), new LabelSuggestionDTO(label.getId(), label.getName()),
+                        List.of(label.getName()));
+            }
+        } catch (RuntimeException e) {
+            synchronized (changeLock) {
+                changedDuringRebuild = null;
+            }
+            throw e;
+        }
+
+        // The snapshot may predate changes committed while it loaded; replaying them in commit order is safe
+        // because each one carries its own values
+        synchronized (changeLock) {
+            users.replaceWith(loadedUsers);
+            labels.replaceWith(loadedLabels);
+            changedDuringRebuild.forEach(Runnable::run);
+            changedDuringRebuild = null;
+        }
+        log.info("Suggest index built with {} users and {} labels in {} ms",
+                users.size(), labels.size(), (System.nanoTime() - started) / 1_000_000);
+    }
+
+    // Safety net for writes that bypass the services
+    @Scheduled(fixedDelayString = "${suggest.rebuild-interval-ms:3600000}",
+            initialDelayString = "${suggest.rebuild-interval-ms:3600000}")
+    public void scheduledRebuild() {
+        rebuild();
+    }
+
+    private void apply(Runnable change) {
+        synchronized (changeLock) {
+            change.run();
+            if (changedDuringRebuild != null) {
+                changedDuringRebuild.add(change);
+            }
+        }
+    }
+
+    private static UserSuggestionDTO toSuggestion(User user) {
+        return new UserSuggestionDTO(user.getId(), user.getFirstName(), user.getLastName(), user.getEmail());
+    }
+
+    // Each name on its own, the full name and the email, so "jo", "doe", "john d" and "john.doe@" all match
+    private static List<String> terms(User user) {
+        List<String> terms = new ArrayList<>();
+        terms.add(user.getFirstName());
+        terms.add(user.getLastName());
+        terms.add(user.getEmail());
+        if (user.getFirstName() != null && user.getLastName() != null) {
+            terms.add(user.getFirstName() + " " + user.getLastName());
+        }
+        return terms;
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package hexlet.code.service;
+
+import hexlet.code.dto.TaskHistoryDTO;
+import hexlet.code.mapper.TaskHistoryMapper;
+import hexlet.code.model.TaskHistory;
+import hexlet.code.repository.TaskHistoryRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Service
+public class TaskAuditService {
+
+    private static final String INSERT_SQL = "INSERT INTO task_history "
+            + "(task_id, field, old_value, new_value, changed_by, changed_at) VALUES (?, ?, ?, ?, ?, ?)";
+    private static final String SYSTEM_ACTOR = "system";
+    private static final int MAX_VALUE_LENGTH = 2000;
+
+    private final TaskHistoryRepository taskHistoryRepository;
+    private final TaskHistoryMapper taskHistoryMapper;
+    private final JdbcTemplate jdbcTemplate;
+    private final BlockingQueue<TaskHistory> queue;
+    private final int batchSize;
+
+    private final Counter enqueuedCounter;
+    private final Counter droppedCounter;
+    private final Counter writtenCounter;
+    private final Counter failedCounter;
+
+    public TaskAuditService(
+            TaskHistoryRepository taskHistoryRepository,
+            TaskHistoryMapper taskHistoryMapper,
+            JdbcTemplate jdbcTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${audit.queue-capacity:10000}") int queueCapacity,
+            @Value("${audit.batch-size:500}") int batchSize) {
+        this.taskHistoryRepository = taskHistoryRepository;
+        this.taskHistoryMapper = taskHistoryMapper;
+        this.jdbcTemplate = jdbcTemplate;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+
+        this.enqueuedCounter = meterRegistry.counter("task.audit.enqueued");
+        this.droppedCounter = meterRegistry.counter("task.audit.dropped");
+        this.writtenCounter = meterRegistry.counter("task.audit.written");
+        this.failedCounter = meterRegistry.counter("task.audit.failed");
+        Gauge.builder("task.audit.queue.size", queue, BlockingQueue::size).register(meterRegistry);
+        Gauge.builder("task.audit.queue.remaining", queue, BlockingQueue::remainingCapacity).register(meterRegistry);
+    }
+
+    public void recordChanges(Long taskId, TaskSnapshot before, TaskSnapshot after) {
+        Map<String, String> oldFields = before != null ? before.fields() : Map.of();
+        Map<String, String> newFields = after != null ? after.fields() : Map.of();
+        String actor = currentActor();
+        Instant now = Instant.now();
+
+        List<TaskHistory> entries = new ArrayList<>();
+        for (String field : (after != null ? newFields : oldFields).keySet()) {
+            String oldValue = oldFields.get(field);
+            String newValue = newFields.get(field);
+            if (Objects.equals(oldValue, newValue)) {
+                continue;
+            }
+
+            TaskHistory entry = new TaskHistory();
+            entry.setTaskId(taskId);
+            entry.setField(field);
+            entry.setOldValue(truncate(oldValue));
+            entry.setNewValue(truncate(newValue));
+            entry.setChangedBy(actor);
+            entry.setChangedAt(now);
+            entries.add(entry);
+        }
+        if (entries.isEmpty()) {
+            return;
+        }
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            entries.forEach(this::enqueue);
+            return;
+        }
+        // Only record changes that actually committed; a rolled back or retried attempt leaves no history
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                entries.forEach(TaskAuditService.this::enqueue);
+            }
+        });
+    }
+
+    @Transactional(readOnly = true)
+    public List<TaskHistoryDTO> getHistory(Long taskId, Long before, int limit) {
+        List<TaskHistory> entries = before == null
+                ? taskHistoryRepository.findByTaskIdOrderByIdDesc(taskId, Limit.of(limit))
+                : taskHistoryRepository.findByTaskIdAndIdLessThanOrderByIdDesc(taskId, before, Limit.of(limit));
+        return entries.stream()
+                .map(taskHistoryMapper::map)
+                .collect(Collectors.toList());
+    }
+
+    @Scheduled(fixedDelayString = "${audit.flush-interval-ms:500}")
+    public void flush() {
+        List<TaskHistory> batch = new ArrayList<>(batchSize);
+        while (queue.drainTo(batch, batchSize) > 0) {
+            write(batch);
+            batch.clear();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    private void enqueue(TaskHistory entry) {
+        if (queue.offer(entry)) {
+            enqueuedCounter.increment();
+        } else {
+            droppedCounter.increment();
+            log.warn("Audit queue is full, dropping history entry for task {}", entry.getTaskId());
+        }
+    }
+
+    private void write(List<TaskHistory> batch) {
+        try {
+            jdbcTemplate.batchUpdate(INSERT_SQL, batch, batch.size(), (ps, entry) -> {
+                ps.setLong(1, entry.getTaskId());
+                ps.setString(2, entry.getField());
+                ps.setString(3, entry.getOldValue());
+                ps.setString(4, entry.getNewValue());
+                ps.setString(5, entry.getChangedBy());
+                ps.setObject(6, OffsetDateTime.ofInstant(entry.getChangedAt(), ZoneOffset.UTC));
+            });
+            writtenCounter.increment(batch.size());
+        } catch (RuntimeException e) {
+            failedCounter.increment(batch.size());
+            log.error("Failed to write {} audit entries", batch.size(), e);
+        }
+    }
+
+    private String currentActor() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null ? authentication.getName() : SYSTEM_ACTOR;
+    }
+
+    private String truncate(String value) {
+        return value != null && value.length() > MAX_VALUE_LENGTH ? value.substring(0, MAX_VALUE_LENGTH) : value;
+    }
+}
@@ -0,0 +1,10 @@
+package hexlet.code.service;
+
+import hexlet.code.dto.TaskBulkResultDTO;
+import hexlet.code.dto.TaskBulkUpdateDTO;
+import hexlet.code.dto.TaskFilterDTO;
+
+public interface TaskBulkService {
+    TaskBulkResultDTO updateTasks(TaskBulkUpdateDTO taskBulkUpdateDTO);
+    TaskBulkResultDTO deleteTasks(TaskFilterDTO filter);
+}
@@ -0,0 +1,238 @@
+package hexlet.code.service;
+
+import hexlet.code.dto.TaskBulkResultDTO;
+import hexlet.code.dto.TaskBulkUpdateDTO;
+import hexlet.code.dto.TaskDTO;
+import hexlet.code.dto.TaskFilterDTO;
+import hexlet.code.exception.BadRequestException;
+import hexlet.code.exception.ResourceNotFoundException;
+import hexlet.code.mapper.TaskMapper;
+import hexlet.code.model.TaskStatus;
+import hexlet.code.model.User;
+import hexlet.code.repository.LabelRepository;
+import hexlet.code.repository.TaskRepository;
+import hexlet.code.repository.TaskStatusRepository;
+import hexlet.code.repository.UserRepository;
+import hexlet.code.specification.TaskSpecification;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+@Service
+public class TaskBulkServiceImpl implements TaskBulkService {
+
+    private final TaskRepository taskRepository;
+    private final TaskStatusRepository taskStatusRepository;
+    private final UserRepository userRepository;
+    private final LabelRepository labelRepository;
+    private final TaskAuditService taskAuditService;
+    private final TaskCounterService taskCounterService;
+    private final OutboxService outboxService;
+    private final TaskQueryCoalescer taskQueryCoalescer;
+    private final TaskFilterIndex taskFilterIndex;
+    private final TaskRankService taskRankService;
+    private final TaskMapper taskMapper;
+    private final ConflictRetryTemplate conflictRetryTemplate;
+    private final int chunkSize;
+
+    public TaskBulkServiceImpl(
+            TaskRepository taskRepository,
+            TaskStatusRepository taskStatusRepository,
+            UserRepository userRepository,
+            LabelRepository labelRepository,
+            TaskAuditService taskAuditService,
+            TaskCounterService taskCounterService,
+            OutboxService outboxService,
+            TaskQueryCoalescer taskQueryCoalescer,
+            TaskFilterIndex taskFilterIndex,
+            TaskRankService taskRankService,
+            TaskMapper taskMapper,
+            ConflictRetryTemplate conflictRetryTemplate,
+            @Value("${tasks.bulk.chunk-size:500}") int chunkSize) {
+        this.taskRepository = taskRepository;
+        this.taskStatusRepository = taskStatusRepository;
+        this.userRepository = userRepository;
+        this.labelRepository = labelRepository;
+        this.taskAuditService = taskAuditService;
+        this.taskCounterService = taskCounterService;
+        this.outboxService = outboxService;
+        this.taskQueryCoalescer = taskQueryCoalescer;
+        this.taskFilterIndex = taskFilterIndex;
+        this.taskRankService = taskRankService;
+        this.taskMapper = taskMapper;
+        this.conflictRetryTemplate = conflictRetryTemplate;
+        this.chunkSize = chunkSize;
+    }
+
+    @Override
+    public TaskBulkResultDTO updateTasks(TaskBulkUpdateDTO dto) {
+        // Otherwise every matched task would get a new version and an update event for nothing
+        if (dto.getStatus() == null && dto.getAssignee_id() == null && isEmpty(dto.getAddLabelIds())
+                && isEmpty(dto.getRemoveLabelIds())) {
+            throw new BadRequestException("Bulk update requires at least one change");
+        }
+        TaskStatus taskStatus = dto.getStatus() == null ? null : taskStatusRepository.findBySlug(dto.getStatus())
+                .orElseThrow(() -> new ResourceNotFoundException("Task status not found with slug: " + dto.getStatus()));
+        User assignee = dto.getAssignee_id() == null ? null : userRepository.findById(dto.getAssignee_id())
+                .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + dto.getAssignee_id()));
+        Set<Long> addLabelIds = existingLabelIds(dto.getAddLabelIds());
+        Set<Long> removeLabelIds = dto.getRemoveLabelIds() == null ? Set.of() : dto.getRemoveLabelIds();
+
+        long affected = 0;
+        for (List<Long> chunk : chunks(resolveIds(dto.getFilter()))) {
+            affected += conflictRetryTemplate.execute(tx -> {
+                Map<Long, TaskSnapshot> before = loadSnapshots(chunk);
+                List<Long> ids = new ArrayList<>(before.keySet());
+                if (ids.isEmpty()) {
+                    return 0;
+                }
+
+                if (taskStatus != null) {
+                    List<Long> moved = before.values().stream()
+                            .filter(snapshot -> !taskStatus.getSlug().equals(snapshot.status()))
+                            .map(TaskSnapshot::id)
+                            .toList();
+                    taskRankService.appendToColumn(moved, taskStatus.getId());
+                    taskRepository.updateStatus(ids, taskStatus);
+                }
+                if (assignee != null) {
+                    taskRepository.updateAssignee(ids, assignee);
+                }
+                for (Long labelId : addLabelIds) {
+                    taskRepository.addLabel(ids, labelId);
+                }
+                if (!removeLabelIds.isEmpty()) {
+                    taskRepository.removeLabels(ids, removeLabelIds);
+                }
+                taskRepository.incrementVersions(ids);
+
+                Map<Long, TaskSnapshot> updated = new LinkedHashMap<>();
+                before.forEach((id, snapshot) -> {
+                    TaskSnapshot after = applyChanges(snapshot, taskStatus, assignee, addLabelIds, removeLabelIds);
+                    taskAuditService.recordChanges(id, snapshot, after);
+                    taskCounterService.apply(snapshot, after);
+                    updated.put(id, after);
+                });
+                // Events carry the same TaskDTO as single-task updates, so consumers see one payload shape
+                loadDTOs(updated).forEach(task -> outboxService.appendTaskEvent(OutboxService.TASK_UPDATED, task));
+                taskQueryCoalescer.invalidateAfterCommit();
+                taskFilterIndex.refreshAfterCommit(ids);
+                return ids.size();
+            });
+        }
+        return new TaskBulkResultDTO(affected);
+    }
+
+    @Override
+    public TaskBulkResultDTO deleteTasks(TaskFilterDTO filter) {
+        long affected = 0;
+        for (List<Long> chunk : chunks(resolveIds(filter))) {
+            affected += conflictRetryTemplate.execute(tx -> {
+                Map<Long, TaskSnapshot> before = loadSnapshots(chunk);
+                List<Long> ids = new ArrayList<>(before.keySet());
+                if (ids.isEmpty()) {
+                    return 0;
+                }
+
+                List<TaskDTO> deletedTasks = loadDTOs(before);
+                taskRepository.removeAllLabels(ids);
+                int deleted = taskRepository.deleteAllByIdIn(ids);
+
+                before.forEach((id, snapshot) -> {
+                    taskAuditService.recordChanges(id, snapshot, null);
+                    taskCounterService.apply(snapshot, null);
+                });
+                deletedTasks.forEach(task -> outboxService.appendTaskEvent(OutboxService.TASK_DELETED, task));
+                taskQueryCoalescer.invalidateAfterCommit();
+                taskFilterIndex.refreshAfterCommit(ids);
+                return deleted;
+            });
+        }
+        return new TaskBulkResultDTO(affected);
+    }
+
+    private List<Long> resolveIds(TaskFilterDTO filter) {
+        if (filter == null || filter.isEmpty()) {
+            throw new BadRequestException("Bulk operations require at least one filter");
+        }
+        return taskRepository.findIds(TaskSpecification.filter(
+                        filter.getTitleCont(), filter.getAssigneeId(), filter.getStatus(), filter.getLabelId())
+                .and(TaskSpecification.hasIdIn(filter.getIds())));
+    }
+
+    private List<List<Long>> chunks(List<Long> ids) {
+        List<List<Long>> chunks = new ArrayList<>();
+        for (int from = 0; from < ids.size(); from += chunkSize) {
+            chunks.add(ids.subList(from, Math.min(from + chunkSize, ids.size())));
+        }
+        return chunks;
+    }
+
+    // Column projections only: descriptions and entities are never loaded
+    private Map<Long, TaskSnapshot> loadSnapshots(List<Long> ids) {
+        Map<Long, TreeSet<Long>> labels = new LinkedHashMap<>();
+        for (Object[] row : taskRepository.findLabelRows(ids)) {
+            labels.computeIfAbsent((Long) row[0], id -> new TreeSet<>()).add((Long) row[1]);
+        }
+
+        Map<Long, TaskSnapshot> snapshots = new LinkedHashMap<>();
+        for (Object[] row : taskRepository.findSummaryRows(ids)) {
+            Long id = (Long) row[0];
+            snapshots.put(id, new TaskSnapshot(
+                    id,
+                    (String) row[1],
+                    null,
+                    (Integer) row[2],
+                    (String) row[3],
+                    (Long) row[4],
+                    labels.getOrDefault(id, new TreeSet<>())));
+        }
+        return snapshots;
+    }
+
+    // A column projection as well; the label ids come from the snapshots, which already reflect the change
+    private List<TaskDTO> loadDTOs(Map<Long, TaskSnapshot> snapshots) {
+        return taskRepository.findDetailRows(snapshots.keySet()).stream()
+                .map(row -> taskMapper.mapDetail(row, List.copyOf(snapshots.get((Long) row[0]).labelIds())))
+                .toList();
+    }
+
+    private static boolean isEmpty(Set<Long> ids) {
+        return ids == null || ids.isEmpty();
+    }
+
+    private TaskSnapshot applyChanges(TaskSnapshot snapshot, TaskStatus taskStatus, User assignee,
+                                      Set<Long> addLabelIds, Set<Long> removeLabelIds) {
+        TreeSet<Long> labelIds = new TreeSet<>(snapshot.labelIds());
+        labelIds.addAll(addLabelIds);
+        labelIds.removeAll(removeLabelIds);
+        return new TaskSnapshot(
+                snapshot.id(),
+                snapshot.title(),
+                snapshot.content(),
+                snapshot.index(),
+                taskStatus != null ? taskStatus.getSlug() : snapshot.status(),
+                assignee != null ? assignee.getId() : snapshot.assigneeId(),
+                labelIds);
+    }
+
+    private Set<Long> existingLabelIds(Set<Long> labelIds) {
+        if (labelIds == null || labelIds.isEmpty()) {
+            return Set.of();
+        }
+        Set<Long> existing = new TreeSet<>();
+        labelRepository.findAllById(labelIds).forEach(label -> existing.add(label.getId()));
+        for (Long labelId : labelIds) {
+            if (!existing.contains(labelId)) {
+                throw new ResourceNotFoundException("Label not found with id: " + labelId);
+            }
+        }
+        return existing;
+    }
+}
@@ -0,0 +1,134 @@
+package hexlet.code.service;
+
+import hexlet.code.dto.TaskStatsDTO;
+import hexlet.code.repository.TaskRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+@Slf4j
+@Service
+public class TaskCounterService {
+
+    static final String TOTAL = "total";
+    static final String STATUS = "status";
+    static final String ASSIGNEE = "assignee";
+    static final String LABEL = "label";
+    private static final String TOTAL_KEY = "all";
+
+    private final TaskRepository taskRepository;
+
+    private volatile Map<String, Map<String, LongAdder>> counters = emptyCounters();
+
+    public TaskCounterService(TaskRepository taskRepository) {
+        this.taskRepository = taskRepository;
+    }
+
+    // Counters live in memory only and every instance counts the tasks table itself, so there is no shared
+    // snapshot for instances to overwrite
+    @PostConstruct
+    public void load() {
+        reconcile();
+    }
+
+    public void apply(TaskSnapshot before, TaskSnapshot after) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            applyNow(before, after);
+            return;
+        }
+
+        // Only count changes that actually committed
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                applyNow(before, after);
+            }
+        });
+    }
+
+    public TaskStatsDTO getStats() {
+        Map<String, Map<String, LongAdder>> current = counters;
+
+        TaskStatsDTO stats = new TaskStatsDTO();
+        stats.setTotal(adder(current, TOTAL, TOTAL_KEY).sum());
+        stats.setByStatus(toSortedMap(current.get(STATUS)));
+        stats.setByAssignee(toSortedMap(current.get(ASSIGNEE)));
+        stats.setByLabel(toSortedMap(current.get(LABEL)));
+        return stats;
+    }
+
+    @Scheduled(
+            initialDelayString = "${task-counters.reconcile-interval-ms:600000}",
+            fixedDelayString = "${task-counters.reconcile-interval-ms:600000}")
+    public void reconcile() {
+        Map<String, Map<String, LongAdder>> fresh = emptyCounters();
+        adder(fresh, TOTAL, TOTAL_KEY).add(taskRepository.count());
+        putAll(fresh, STATUS, taskRepository.countByStatus());
+        putAll(fresh, ASSIGNEE, taskRepository.countByAssignee());
+        putAll(fresh, LABEL, taskRepository.countByLabel());
+
+        // Increments racing with the swap are lost and corrected by the next run
+        counters = fresh;
+        log.debug("Task counters reconciled: {} tasks", adder(fresh, TOTAL, TOTAL_KEY).sum());
+    }
+
+    private void applyNow(TaskSnapshot before, TaskSnapshot after) {
+        Map<String, Map<String, LongAdder>> current = counters;
+        adjust(current, before, -1);
+        adjust(current, after, 1);
+    }
+
+    private void adjust(Map<String, Map<String, LongAdder>> current, TaskSnapshot task, int delta) {
+        if (task == null) {
+            return;
+        }
+
+        adder(current, TOTAL, TOTAL_KEY).add(delta);
+        if (task.status() != null) {
+            adder(current, STATUS, task.status()).add(delta);
+        }
+        if (task.assigneeId() != null) {
+            adder(current, ASSIGNEE, String.valueOf(task.assigneeId())).add(delta);
+        }
+        for (Long labelId : task.labelIds()) {
+            adder(current, LABEL, String.valueOf(labelId)).add(delta);
+        }
+    }
+
+    private static void putAll(Map<String, Map<String, LongAdder>> target, String dimension, List<Object[]> rows) {
+        for (Object[] row : rows) {
+            adder(target, dimension, String.valueOf(row[0])).add(((Number) row[1]).longValue());
+        }
+    }
+
+    private static LongAdder adder(Map<String, Map<String, LongAdder>> target, String dimension, String key) {
+        return target.computeIfAbsent(dimension, d -> new ConcurrentHashMap<>())
+                .computeIfAbsent(key, k -> new LongAdder());
+    }
+
+    private static Map<String, Long> toSortedMap(Map<String, LongAdder> values) {
+        Map<String, Long> result = new TreeMap<>();
+        if (values != null) {
+            values.forEach((key, adder) -> {
+                long total = adder.sum();
+                if (total > 0) {
+                    result.put(key, total);
+                }
+            });
+        }
+        return result;
+    }
+
+    private static Map<String, Map<String, LongAdder>> emptyCounters() {
+        return new ConcurrentHashMap<>();
+    }
+}
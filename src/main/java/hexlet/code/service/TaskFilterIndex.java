@@ -0,0 +1,344 @@
+package hexlet.code.service;
+
+import hexlet.code.repository.TaskRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+@Slf4j
+@Service
+public class TaskFilterIndex {
+
+    // Same order as the SQL path, which spells out NULLS FIRST: column, then rank (unranked first), then id
+    private static final Comparator<Row> COLUMN_ORDER = Comparator
+            .comparingLong(Row::statusId)
+            .thenComparing(Row::rank, Comparator.nullsFirst(Comparator.naturalOrder()))
+            .thenComparingLong(Row::id);
+
+    private final TaskRepository taskRepository;
+    private final TransactionTemplate readTransaction;
+    private final boolean enabled;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private volatile State state;
+    // Ids written while a rebuild was loading; they are re-read once the rebuilt state is in place
+    private Set<Long> refreshedDuringRebuild;
+
+    private final Counter hitCounter;
+    private final Counter refreshCounter;
+    private final MeterRegistry meterRegistry;
+
+    public TaskFilterIndex(
+            TaskRepository taskRepository,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${tasks.filter-index.enabled:false}") boolean enabled) {
+        this.taskRepository = taskRepository;
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        // Refreshes run after the writing transaction has committed, so they need one of their own
+        this.readTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.readTransaction.setReadOnly(true);
+        this.enabled = enabled;
+
+        this.hitCounter = meterRegistry.counter("tasks.filter-index.queries");
+        this.refreshCounter = meterRegistry.counter("tasks.filter-index.refreshed");
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct
+    public void registerGauges() {
+        Gauge.builder("tasks.filter-index.size", this, TaskFilterIndex::size).register(meterRegistry);
+    }
+
+    // Returns the matching ids in column order, or empty when the index is off or not built yet
+    public Optional<List<Long>> find(String titleCont, Long assigneeId, String status, Long labelId) {
+        State current = state;
+        if (current == null) {
+            return Optional.empty();
+        }
+        lock.readLock().lock();
+        try {
+            RoaringBitmap matches = current.all.clone();
+            if (status != null && !status.isBlank()) {
+                Long statusId = current.statusIds.get(status);
+                matches.and(statusId == null ? new RoaringBitmap() : current.byStatus.getOrDefault(statusId, new RoaringBitmap()));
+            }
+            if (assigneeId != null) {
+                matches.and(current.byAssignee.getOrDefault(assigneeId, new RoaringBitmap()));
+            }
+            if (labelId != null) {
+                matches.and(current.byLabel.getOrDefault(labelId, new RoaringBitmap()));
+            }
+
+            String needle = titleCont == null || titleCont.isBlank() ? null : titleCont.toLowerCase(Locale.ROOT);
+            List<Row> rows = new ArrayList<>(matches.getCardinality());
+            matches.forEach((int id) -> {
+                Row row = current.rows.get((long) id);
+                if (needle == null || row.name().contains(needle)) {
+                    rows.add(row);
+                }
+            });
+            rows.sort(COLUMN_ORDER);
+            hitCounter.increment();
+            return Optional.of(rows.stream().map(Row::id).toList());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void refreshAfterCommit(Collection<Long> ids) {
+        if (!enabled || ids.isEmpty()) {
+            return;
+        }
+        List<Long> copy = List.copyOf(ids);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    refresh(copy);
+                }
+            });
+        } else {
+            refresh(copy);
+        }
+    }
+
+    public void renameStatusAfterCommit(Long statusId, String slug) {
+        if (!enabled) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    renameStatus(statusId, slug);
+                }
+            });
+        } else {
+            renameStatus(statusId, slug);
+        }
+    }
+
+    private void renameStatus(Long statusId, String slug) {
+        State current = state;
+        if (current == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            current.statusIds.values().removeIf(statusId::equals);
+            current.statusIds.put(slug, statusId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        if (!enabled) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            refreshedDuringRebuild = new HashSet<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        long started = System.nanoTime();
+        State loaded;
+        try {
+            loaded = readTransaction.execute(tx -> load(taskRepository.findIndexRows(), taskRepository.findAllLabelRows()));
+        } catch (RuntimeException e) {
+            // Otherwise every later refresh keeps collecting ids for a rebuild that is not coming
+            lock.writeLock().lock();
+            try {
+                refreshedDuringRebuild = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            throw e;
+        }
+
+        Set<Long> pending;
+        lock.writeLock().lock();
+        try {
+            state = loaded;
+            pending = refreshedDuringRebuild;
+            refreshedDuringRebuild = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        if (loaded != null && !pending.isEmpty()) {
+            refresh(List.copyOf(pending));
+        }
+        log.info("Task filter index built with {} tasks in {} ms", size(), (System.nanoTime() - started) / 1_000_000);
+    }
+
+    // Safety net for writes that bypass the services, such as manual SQL
+    @Scheduled(fixedDelayString = "${tasks.filter-index.rebuild-interval-ms:3600000}",
+            initialDelayString = "${tasks.filter-index.rebuild-interval-ms:3600000}")
+    public void scheduledRebuild() {
+        rebuild();
+    }
+
+    public int size() {
+        State current = state;
+        return current == null ? 0 : current.rows.size();
+    }
+
+    private void refresh(List<Long> ids) {
+        State loaded;
+        try {
+            loaded = readTransaction.execute(tx -> load(taskRepository.findIndexRows(ids), taskRepository.findLabelRows(ids)));
+        } catch (RuntimeException e) {
+            // A missed refresh would leave the index wrong, so stop answering from it until the next rebuild
+            log.warn("Cannot refresh task filter index, disabling it until the next rebuild", e);
+            state = null;
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            if (refreshedDuringRebuild != null) {
+                refreshedDuringRebuild.addAll(ids);
+            }
+            State current = state;
+            if (current == null || loaded == null) {
+                return;
+            }
+            // Refreshes load outside the lock, so one that read an older version can get here after a newer one;
+            // versions keep it from winning, and deleted ids stay deleted
+            for (Long id : ids) {
+                if (id > Integer.MAX_VALUE || current.deleted.contains((int) (long) id)) {
+                    continue;
+                }
+                Row fresh = loaded.rows.get(id);
+                Row indexed = current.rows.get(id);
+                if (fresh == null) {
+                    current.remove(id);
+                    current.deleted.add((int) (long) id);
+                } else if (indexed == null || !indexed.isNewerThan(fresh)) {
+                    current.remove(id);
+                    current.add(fresh);
+                }
+            }
+            current.statusIds.putAll(loaded.statusIds);
+            refreshCounter.increment(ids.size());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Returns null when an id does not fit the 32-bit bitmaps; the SQL path is used instead
+    private static State load(List<Object[]> taskRows, List<Object[]> labelRows) {
+        Map<Long, List<Long>> labels = new HashMap<>();
+        for (Object[] row : labelRows) {
+            labels.computeIfAbsent((Long) row[0], id -> new ArrayList<>()).add((Long) row[1]);
+        }
+
+        State loaded = new State();
+        for (Object[] row : taskRows) {
+            Long id = (Long) row[0];
+            if (id > Integer.MAX_VALUE) {
+                log.warn("Task id {} does not fit the filter index, falling back to SQL filtering", id);
+                return null;
+            }
+            String name = (String) row[1];
+            loaded.add(new Row(
+                    id,
+                    name == null ? "" : name.toLowerCase(Locale.ROOT),
+                    (Long) row[2],
+                    (Long) row[3],
+                    (Long) row[5],
+                    (Long) row[6],
+                    labels.getOrDefault(id, List.of())));
+            loaded.statusIds.put((String) row[4], (Long) row[3]);
+        }
+        return loaded;
+    }
+
+    private record Row(long id, String name, Long rank, long statusId, Long assigneeId, Long version,
+                       List<Long> labelIds) {
+        boolean isNewerThan(Row other) {
+            return version != null && other.version() != null && version > other.version();
+        }
+    }
+
+    private static final class State {
+        private final RoaringBitmap all = new RoaringBitmap();
+        private final Map<Long, RoaringBitmap> byStatus = new HashMap<>();
+        private final Map<Long, RoaringBitmap> byAssignee = new HashMap<>();
+        private final Map<Long, RoaringBitmap> byLabel = new HashMap<>();
+        private final Map<String, Long> statusIds = new HashMap<>();
+        private final TreeMap<Long, Row> rows = new TreeMap<>();
+        // Ids are never reused, so a deletion is final until the next rebuild starts from scratch
+        private final RoaringBitmap deleted = new RoaringBitmap();
+
+        void add(Row row) {
+            int id = (int) row.id();
+            rows.put(row.id(), row);
+            all.add(id);
+            byStatus.computeIfAbsent(row.statusId(), key -> new RoaringBitmap()).add(id);
+            if (row.assigneeId() != null) {
+                byAssignee.computeIfAbsent(row.assigneeId(), key -> new RoaringBitmap()).add(id);
+            }
+            for (Long labelId : row.labelIds()) {
+                byLabel.computeIfAbsent(labelId, key -> new RoaringBitmap()).add(id);
+            }
+        }
+
+        void remove(Long taskId) {
+            Row row = rows.remove(taskId);
+            if (row == null) {
+                return;
+            }
+            int id = (int) row.id();
+            all.remove(id);
+            removeFrom(byStatus, row.statusId(), id);
+            if (row.assigneeId() != null) {
+                removeFrom(byAssignee, row.assigneeId(), id);
+            }
+            for (Long labelId : row.labelIds()) {
+                removeFrom(byLabel, labelId, id);
+            }
+        }
+
+        private static void removeFrom(Map<Long, RoaringBitmap> bitmaps, Long key, int id) {
+            RoaringBitmap bitmap = bitmaps.get(key);
+            if (bitmap != null) {
+                bitmap.remove(id);
+                if (bitmap.isEmpty()) {
+                    bitmaps.remove(key);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,237 @@
+package hexlet.code.service;
+
+import hexlet.code.dto.TaskDTO;
+import hexlet.code.dto.TaskSummaryDTO;
+import hexlet.code.dto.TaskView;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.TransactionTimedOutException;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+@Slf4j
+@Service
+public class TaskQueryCoalescer {
+
+    private final long resultTtlMs;
+    private final long staleTtlMs;
+    private final int maxResults;
+    private final AtomicLong generation = new AtomicLong();
+
+    private final Map<Key, CompletableFuture<List<? extends TaskSummaryDTO>>> inFlight = new ConcurrentHashMap<>();
+    private final Map<Query, CachedResult> results = new ConcurrentHashMap<>();
+    private final ExecutorService refreshExecutor;
+
+    private final Counter executedCounter;
+    private final Counter coalescedCounter;
+    private final Counter cacheHitCounter;
+    private final Counter staleHitCounter;
+    private final Counter staleFallbackCounter;
+    private final Counter refreshFailedCounter;
+
+    // A result is fresh for result-ttl-ms after loading and may be served stale until stale-ttl-ms
+    public TaskQueryCoalescer(
+            MeterRegistry meterRegistry,
+            @Value("${tasks.query.result-ttl-ms:0}") long resultTtlMs,
+            @Value("${tasks.query.stale-ttl-ms:0}") long staleTtlMs,
+            @Value("${tasks.query.max-results:1000}") int maxResults,
+            @Value("${tasks.query.refresh-threads:2}") int refreshThreads) {
+        this.resultTtlMs = resultTtlMs;
+        this.staleTtlMs = staleTtlMs;
+        this.maxResults = maxResults;
+        this.refreshExecutor = Executors.newFixedThreadPool(refreshThreads);
+
+        this.executedCounter = meterRegistry.counter("tasks.query.executed");
+        this.coalescedCounter = meterRegistry.counter("tasks.query.coalesced");
+        this.cacheHitCounter = meterRegistry.counter("tasks.query.cache.hits");
+        this.staleHitCounter = meterRegistry.counter("tasks.query.cache.stale-hits");
+        this.staleFallbackCounter = meterRegistry.counter("tasks.query.cache.stale-fallbacks");
+        this.refreshFailedCounter = meterRegistry.counter("tasks.query.refresh.failed");
+        Gauge.builder("tasks.query.in-flight", inFlight, Map::size).register(meterRegistry);
+    }
+
+    // staleAgeMs is the age of the cached copy the value came from, or null when it was loaded for this call
+    public record Result<T>(T value, Long staleAgeMs) {
+    }
+
+    public Result<List<TaskDTO>> execute(String titleCont, Long assigneeId, String status, Long labelId,
+                                         Supplier<List<TaskDTO>> loader) {
+        return execute(TaskView.FULL, titleCont, assigneeId, status, labelId, loader);
+    }
+
+    // Each view is a separate entry; callers must always pair a view with the same element type
+    @SuppressWarnings("unchecked")
+    public <T extends TaskSummaryDTO> Result<List<T>> execute(TaskView view, String titleCont, Long assigneeId,
+                                                              String status, Long labelId, Supplier<List<T>> loader) {
+        Query query = new Query(view, normalizeTitle(titleCont), assigneeId, normalize(status), labelId);
+        // A write bumps the generation, so requests arriving after it never join a query that started before it
+        Key key = new Key(generation.get(), query);
+
+        CachedResult cached = results.get(query);
+        if (cached != null && cached.generation() == key.generation()) {
+            long age = cached.age();
+            if (age < resultTtlMs) {
+                cacheHitCounter.increment();
+                return new Result<>((List<T>) cached.tasks(), null);
+            }
+            // Past its fresh TTL but not invalidated by a write: answer now and let one refresh run behind it
+            if (age < staleTtlMs) {
+                staleHitCounter.increment();
+                refreshInBackground(key, loader);
+                return new Result<>((List<T>) cached.tasks(), age);
+            }
+        }
+
+        CompletableFuture<List<? extends TaskSummaryDTO>> created = new CompletableFuture<>();
+        CompletableFuture<List<? extends TaskSummaryDTO>> existing = inFlight.putIfAbsent(key, created);
+        try {
+            if (existing != null) {
+                coalescedCounter.increment();
+                return new Result<>((List<T>) await(existing), null);
+            }
+            return new Result<>(load(key, created, loader), null);
+        } catch (RuntimeException e) {
+            // An overloaded database is better answered with an older list, even one from before a write,
+            // than with an error
+            long age = cached != null ? cached.age() : 0;
+            if (cached != null && age < staleTtlMs && isTimeout(e)) {
+                log.warn("Task query timed out, serving a result loaded {} ms ago", age);
+                staleFallbackCounter.increment();
+                return new Result<>((List<T>) cached.tasks(), age);
+            }
+            throw e;
+        }
+    }
+
+    public void invalidateAfterCommit() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    invalidate();
+                }
+            });
+        } else {
+            invalidate();
+        }
+    }
+
+    // Results are kept for the stale fallback, but no longer count as fresh
+    public void invalidate() {
+        generation.incrementAndGet();
+        if (staleTtlMs <= 0) {
+            results.clear();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${tasks.query.purge-interval-ms:60000}")
+    public void purge() {
+        long retentionMs = Math.max(resultTtlMs, staleTtlMs);
+        results.values().removeIf(cached -> cached.age() >= retentionMs);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        refreshExecutor.shutdown();
+    }
+
+    private <T extends TaskSummaryDTO> List<T> load(Key key, CompletableFuture<List<? extends TaskSummaryDTO>> created,
+                                                    Supplier<List<T>> loader) {
+        try {
+            List<T> tasks = List.copyOf(loader.get());
+            executedCounter.increment();
+            if ((resultTtlMs > 0 || staleTtlMs > 0) && key.generation() == generation.get()) {
+                if (results.size() >= maxResults) {
+                    results.clear();
+                }
+                results.put(key.query(), new CachedResult(tasks, key.generation(), System.currentTimeMillis()));
+            }
+            created.complete(tasks);
+            return tasks;
+        } catch (RuntimeException e) {
+            created.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, created);
+        }
+    }
+
+    // The in-flight entry doubles as the refresh lock, so there is at most one refresh per query and requests
+    // that miss the cache meanwhile join it instead of starting their own
+    private <T extends TaskSummaryDTO> void refreshInBackground(Key key, Supplier<List<T>> loader) {
+        CompletableFuture<List<? extends TaskSummaryDTO>> created = new CompletableFuture<>();
+        if (inFlight.putIfAbsent(key, created) != null) {
+            return;
+        }
+        try {
+            refreshExecutor.execute(() -> {
+                try {
+                    load(key, created, loader);
+                } catch (RuntimeException e) {
+                    refreshFailedCounter.increment();
+                    log.warn("Background refresh of a task query failed: {}", e.getMessage());
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            inFlight.remove(key, created);
+            created.completeExceptionally(e);
+        }
+    }
+
+    private static boolean isTimeout(RuntimeException e) {
+        return e instanceof TransientDataAccessException
+                || e instanceof CannotCreateTransactionException
+                || e instanceof TransactionTimedOutException;
+    }
+
+    private static List<? extends TaskSummaryDTO> await(CompletableFuture<List<? extends TaskSummaryDTO>> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private static String normalizeTitle(String titleCont) {
+        return titleCont == null || titleCont.isBlank() ? null : titleCont.toLowerCase(Locale.ROOT);
+    }
+
+    private static String normalize(String value) {
+        return value == null || value.isBlank() ? null : value;
+    }
+
+    private record Query(TaskView view, String titleCont, Long assigneeId, String status, Long labelId) {
+    }
+
+    private record Key(long generation, Query query) {
+    }
+
+    private record CachedResult(List<? extends TaskSummaryDTO> tasks, long generation, long loadedAt) {
+        long age() {
+            return System.currentTimeMillis() - loadedAt;
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package hexlet.code.service;
+
+import hexlet.code.model.Task;
+import hexlet.code.repository.TaskRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Slf4j
+@Service
+public class TaskRankService {
+
+    static final long RANK_GAP = 1L << 16;
+    private static final long MIN_GAP = 8;
+
+    private final TaskRepository taskRepository;
+    private final TaskQueryCoalescer taskQueryCoalescer;
+    private final TaskFilterIndex taskFilterIndex;
+    private final ConflictRetryTemplate conflictRetryTemplate;
+    private final Set<Long> columnsToRebalance = ConcurrentHashMap.newKeySet();
+
+    public TaskRankService(TaskRepository taskRepository, TaskQueryCoalescer taskQueryCoalescer,
+                           TaskFilterIndex taskFilterIndex, ConflictRetryTemplate conflictRetryTemplate) {
+        this.taskRepository = taskRepository;
+        this.taskQueryCoalescer = taskQueryCoalescer;
+        this.taskFilterIndex = taskFilterIndex;
+        this.conflictRetryTemplate = conflictRetryTemplate;
+    }
+
+    public long nextRank(Long statusId) {
+        Long maxRank = taskRepository.findMaxRank(statusId);
+        return maxRank == null ? RANK_GAP : maxRank + RANK_GAP;
+    }
+
+    // Called before the tasks change status: shifts their ranks past the end of the target column, keeping
+    // their relative order. Unranked tasks stay unranked and are picked up by the scheduled rebalance
+    @Transactional
+    public void appendToColumn(Collection<Long> ids, Long statusId) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        Long minRank = taskRepository.findMinRank(ids);
+        if (minRank != null) {
+            taskRepository.shiftRanks(ids, nextRank(statusId) - minRank);
+        }
+    }
+
+    @Transactional
+    public long rankBetween(Task task, Long statusId, Task before, Task after) {
+        if (taskRepository.existsByTaskStatusIdAndRankIsNull(statusId)) {
+            rebalance(statusId);
+        }
+
+        Long rank = tryRankBetween(task, statusId, before, after);
+        if (rank == null) {
+            // No free slot left between the neighbours: renumber the column and try again
+            rebalance(statusId);
+            rank = tryRankBetween(task, statusId, before, after);
+        }
+        return rank;
+    }
+
+    @Transactional
+    public void rebalance(Long statusId) {
+        List<Task> tasks = taskRepository.findInColumnOrder(statusId);
+        long rank = RANK_GAP;
+        for (Task task : tasks) {
+            task.setRank(rank);
+            rank += RANK_GAP;
+        }
+        taskRepository.flush();
+        taskQueryCoalescer.invalidateAfterCommit();
+        taskFilterIndex.refreshAfterCommit(tasks.stream().map(Task::getId).toList());
+        columnsToRebalance.remove(statusId);
+        log.debug("Rebalanced {} tasks in status {}", tasks.size(), statusId);
+    }
+
+    @Scheduled(fixedDelayString = "${task-rank.rebalance-interval-ms:60000}")
+    public void rebalancePending() {
+        Set<Long> statusIds = new LinkedHashSet<>(columnsToRebalance);
+        statusIds.addAll(taskRepository.findStatusIdsWithUnrankedTasks());
+        for (Long statusId : statusIds) {
+            conflictRetryTemplate.execute(tx -> {
+                rebalance(statusId);
+                return null;
+            });
+        }
+    }
+
+    private Long tryRankBetween(Task task, Long statusId, Task before, Task after) {
+        Long lower;
+        Long upper;
+        if (after != null) {
+            lower = after.getRank();
+            upper = taskRepository
+                    .findFirstByTaskStatusIdAndRankGreaterThanAndIdNotOrderByRankAsc(statusId, lower, task.getId())
+                    .map(Task::getRank)
+                    .orElse(null);
+        } else if (before != null) {
+            upper = before.getRank();
+            lower = taskRepository
+                    .findFirstByTaskStatusIdAndRankLessThanAndIdNotOrderByRankDesc(statusId, upper, task.getId())
+                    .map(Task::getRank)
+                    .orElse(null);
+        } else {
+            return nextRank(statusId);
+        }
+
+        if (lower == null) {
+            return upper - RANK_GAP;
+        }
+        if (upper == null) {
+            return lower + RANK_GAP;
+        }
+        if (upper - lower < 2) {
+            return null;
+        }
+        if (upper - lower < MIN_GAP) {
+            columnsToRebalance.add(statusId);
+        }
+        return lower + (upper - lower) / 2;
+    }
+}
@@ -2,15 +2,22 @@ package hexlet.code.service;
 
 import hexlet.code.dto.TaskCreateDTO;
 import hexlet.code.dto.TaskDTO;
+import hexlet.code.dto.TaskMoveDTO;
+import hexlet.code.dto.TaskSummaryDTO;
 import hexlet.code.dto.TaskUpdateDTO;
 
 import java.util.List;
 
 public interface TaskService {
     List<TaskDTO> getAllTasks();
-    List<TaskDTO> getFilteredTasks(String titleCont, Long assigneeId, String status, Long labelId);
+    TaskQueryCoalescer.Result<List<TaskDTO>> getFilteredTasks(String titleCont, Long assigneeId, String status,
+                                                              Long labelId);
+    TaskQueryCoalescer.Result<List<TaskSummaryDTO>> getFilteredTaskSummaries(String titleCont, Long assigneeId,
+                                                                             String status, Long labelId,
+                                                                             boolean withLabels);
     TaskDTO getTaskById(Long id);
     TaskDTO createTask(TaskCreateDTO taskCreateDTO);
-    TaskDTO updateTask(Long id, TaskUpdateDTO taskUpdateDTO);
+    TaskDTO updateTask(Long id, TaskUpdateDTO taskUpdateDTO, Long expectedVersion);
+    TaskDTO moveTask(Long id, TaskMoveDTO taskMoveDTO);
     void deleteTask(Long id);
 }
\ No newline at end of file
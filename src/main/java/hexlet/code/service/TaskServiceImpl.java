@@ -2,52 +2,145 @@ package hexlet.code.service;
 
 import hexlet.code.dto.TaskCreateDTO;
 import hexlet.code.dto.TaskDTO;
+import hexlet.code.dto.TaskMoveDTO;
+import hexlet.code.dto.TaskSummaryDTO;
 import hexlet.code.dto.TaskUpdateDTO;
+import hexlet.code.dto.TaskView;
+import hexlet.code.exception.BadRequestException;
+import hexlet.code.exception.PreconditionFailedException;
 import hexlet.code.exception.ResourceNotFoundException;
 import hexlet.code.mapper.TaskMapper;
 import hexlet.code.model.Task;
+import hexlet.code.model.TaskStatus;
 import hexlet.code.repository.TaskRepository;
-import lombok.AllArgsConstructor;
-import org.springframework.data.jpa.domain.Specification;
+import hexlet.code.repository.TaskStatusRepository;
+import hexlet.code.specification.TaskSpecification;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
-import static hexlet.code.specification.TaskSpecification.hasAssigneeId;
-import static hexlet.code.specification.TaskSpecification.hasLabelId;
-import static hexlet.code.specification.TaskSpecification.hasStatusSlug;
-import static hexlet.code.specification.TaskSpecification.titleContains;
-
 @Service
-@AllArgsConstructor
+@RequiredArgsConstructor
 public class TaskServiceImpl implements TaskService {
 
+    private static final int HYDRATE_BATCH_SIZE = 1000;
+
     private final TaskRepository taskRepository;
+    private final TaskStatusRepository taskStatusRepository;
     private final TaskMapper taskMapper;
+    private final TaskAuditService taskAuditService;
+    private final OutboxService outboxService;
+    private final TaskCounterService taskCounterService;
+    private final TaskRankService taskRankService;
+    private final TaskQueryCoalescer taskQueryCoalescer;
+    private final TaskFilterIndex taskFilterIndex;
+    private final PlatformTransactionManager transactionManager;
+
+    // Seconds a filtered task query may run, -1 for no limit
+    @Value("${tasks.query.timeout-seconds:-1}")
+    private int queryTimeoutSeconds;
 
     @Override
+    @Transactional(readOnly = true)
     public List<TaskDTO> getAllTasks() {
         return taskRepository.findAll().stream()
                 .map(taskMapper::map)
                 .collect(Collectors.toList());
     }
 
+    // The coalesced queries open their read-only transaction inside the shared execution, so callers that
+    // wait for it do not hold a connection each. A query timeout turns a stalled database into an error the
+    // coalescer can answer with its stale copy
     @Override
-    public List<TaskDTO> getFilteredTasks(String titleCont, Long assigneeId, String status, Long labelId) {
-        Specification<Task> spec = Specification.allOf(
-                 titleContains(titleCont),
-                 hasAssigneeId(assigneeId),
-                 hasStatusSlug(status),
-                 hasLabelId(labelId));
-
-        List<Task> filteredTasks = taskRepository.findAll(spec);
-        return filteredTasks.stream()
-                .map(taskMapper::map)
-                .collect(Collectors.toList());
+    public TaskQueryCoalescer.Result<List<TaskDTO>> getFilteredTasks(String titleCont, Long assigneeId, String status,
+                                                                     Long labelId) {
+        return taskQueryCoalescer.execute(titleCont, assigneeId, status, labelId, () -> inReadTransaction(() -> {
+            List<Task> filteredTasks = taskFilterIndex.find(titleCont, assigneeId, status, labelId)
+                    .map(this::hydrate)
+                    .orElseGet(() -> taskRepository.findFiltered(titleCont, assigneeId, status, labelId));
+            return filteredTasks.stream()
+                    .map(taskMapper::map)
+                    .collect(Collectors.toList());
+        }));
+    }
+
+    @Override
+    public TaskQueryCoalescer.Result<List<TaskSummaryDTO>> getFilteredTaskSummaries(String titleCont, Long assigneeId,
+                                                                                    String status, Long labelId,
+                                                                                    boolean withLabels) {
+        TaskView view = withLabels ? TaskView.SUMMARY : TaskView.SUMMARY_WITHOUT_LABELS;
+        return taskQueryCoalescer.execute(view, titleCont, assigneeId, status, labelId, () -> inReadTransaction(() -> {
+            List<Object[]> rows = taskFilterIndex.find(titleCont, assigneeId, status, labelId)
+                    .map(this::loadSummaryRows)
+                    .orElseGet(() -> taskRepository.findFilteredSummaryRows(titleCont, assigneeId, status, labelId));
+            if (!withLabels) {
+                return rows.stream().map(row -> taskMapper.mapSummary(row, null)).toList();
+            }
+
+            Map<Long, List<Long>> labelIds = new HashMap<>();
+            List<Long> ids = rows.stream().map(row -> (Long) row[0]).toList();
+            for (List<Long> batch : batches(ids)) {
+                for (Object[] labelRow : taskRepository.findLabelRows(batch)) {
+                    labelIds.computeIfAbsent((Long) labelRow[0], id -> new ArrayList<>()).add((Long) labelRow[1]);
+                }
+            }
+            return rows.stream()
+                    .map(row -> taskMapper.mapSummary(row, labelIds.getOrDefault((Long) row[0], List.of())))
+                    .toList();
+        }));
+    }
+
+    private <T> T inReadTransaction(Supplier<T> query) {
+        TransactionTemplate readTransaction = new TransactionTemplate(transactionManager);
+        readTransaction.setReadOnly(true);
+        readTransaction.setTimeout(queryTimeoutSeconds);
+        return readTransaction.execute(tx -> query.get());
+    }
+
+    private List<Object[]> loadSummaryRows(List<Long> ids) {
+        Map<Long, Object[]> loaded = new HashMap<>();
+        for (List<Long> batch : batches(ids)) {
+            taskRepository.findListRows(batch).forEach(row -> loaded.put((Long) row[0], row));
+        }
+        return ids.stream()
+                .map(loaded::get)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    // The index already filtered and ordered the ids, so the database only loads rows by primary key
+    private List<Task> hydrate(List<Long> ids) {
+        Map<Long, Task> loaded = new HashMap<>();
+        for (List<Long> batch : batches(ids)) {
+            taskRepository.findAll(TaskSpecification.hasIdIn(batch)).forEach(task -> loaded.put(task.getId(), task));
+        }
+        return ids.stream()
+                .map(loaded::get)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    private static List<List<Long>> batches(List<Long> ids) {
+        List<List<Long>> batches = new ArrayList<>();
+        for (int from = 0; from < ids.size(); from += HYDRATE_BATCH_SIZE) {
+            batches.add(ids.subList(from, Math.min(from + HYDRATE_BATCH_SIZE, ids.size())));
+        }
+        return batches;
     }
 
     @Override
+    @Transactional(readOnly = true)
     public TaskDTO getTaskById(Long id) {
         Task task = taskRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Task not found with id: " + id));
@@ -55,26 +148,112 @@ public class TaskServiceImpl implements TaskService {
     }
 
     @Override
+    @Transactional
     public TaskDTO createTask(TaskCreateDTO taskCreateDTO) {
         Task task = taskMapper.map(taskCreateDTO);
+        if (task.getTaskStatus() != null) {
+            task.setRank(taskRankService.nextRank(task.getTaskStatus().getId()));
+        }
         Task savedTask = taskRepository.save(task);
-        return taskMapper.map(savedTask);
+        TaskSnapshot after = TaskSnapshot.of(savedTask);
+        taskAuditService.recordChanges(savedTask.getId(), null, after);
+        taskCounterService.apply(null, after);
+        taskQueryCoalescer.invalidateAfterCommit();
+        taskFilterIndex.refreshAfterCommit(List.of(savedTask.getId()));
+
+        TaskDTO result = taskMapper.map(savedTask);
+        outboxService.appendTaskEvent(OutboxService.TASK_CREATED, result);
+        return result;
     }
 
     @Override
-    public TaskDTO updateTask(Long id, TaskUpdateDTO taskUpdateDTO) {
+    @Transactional
+    public TaskDTO updateTask(Long id, TaskUpdateDTO taskUpdateDTO, Long expectedVersion) {
         Task task = taskRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Task not found with id: " + id));
+        PreconditionFailedException.checkVersion(expectedVersion, task.getVersion());
 
+        TaskSnapshot before = TaskSnapshot.of(task);
+        Long previousStatusId = task.getTaskStatus().getId();
         taskMapper.update(taskUpdateDTO, task);
+        if (!task.getTaskStatus().getId().equals(previousStatusId)) {
+            task.setRank(taskRankService.nextRank(task.getTaskStatus().getId()));
+        }
         
-        Task updatedTask = taskRepository.save(task);
-        return taskMapper.map(updatedTask);
+        Task updatedTask = taskRepository.saveAndFlush(task);
+        TaskSnapshot after = TaskSnapshot.of(updatedTask);
+        taskAuditService.recordChanges(id, before, after);
+        taskCounterService.apply(before, after);
+        taskQueryCoalescer.invalidateAfterCommit();
+        taskFilterIndex.refreshAfterCommit(List.of(id));
+
+        TaskDTO result = taskMapper.map(updatedTask);
+        outboxService.appendTaskEvent(OutboxService.TASK_UPDATED, result);
+        return result;
+    }
+
+    @Override
+    @Transactional
+    public TaskDTO moveTask(Long id, TaskMoveDTO taskMoveDTO) {
+        if (taskMoveDTO.getBeforeId() != null && taskMoveDTO.getAfterId() != null) {
+            throw new BadRequestException("Specify either beforeId or afterId, not both");
+        }
+        Task task = findTask(id);
+        Task before = taskMoveDTO.getBeforeId() != null ? findTask(taskMoveDTO.getBeforeId()) : null;
+        Task after = taskMoveDTO.getAfterId() != null ? findTask(taskMoveDTO.getAfterId()) : null;
+        Task sibling = after != null ? after : before;
+        if (sibling == task) {
+            throw new BadRequestException("Task cannot be moved relative to itself");
+        }
+
+        TaskStatus targetStatus;
+        if (taskMoveDTO.getStatus() != null) {
+            targetStatus = taskStatusRepository.findBySlug(taskMoveDTO.getStatus())
+                    .orElseThrow(() -> new ResourceNotFoundException(
+                            "Task status not found with slug: " + taskMoveDTO.getStatus()));
+        } else if (sibling != null) {
+            targetStatus = sibling.getTaskStatus();
+        } else {
+            targetStatus = task.getTaskStatus();
+        }
+        if (sibling != null && !sibling.getTaskStatus().getId().equals(targetStatus.getId())) {
+            throw new BadRequestException("Sibling task " + sibling.getId() + " is not in status "
+                    + targetStatus.getSlug());
+        }
+
+        TaskSnapshot snapshot = TaskSnapshot.of(task);
+        task.setTaskStatus(targetStatus);
+        task.setRank(taskRankService.rankBetween(task, targetStatus.getId(), before, after));
+
+        Task movedTask = taskRepository.saveAndFlush(task);
+        TaskSnapshot moved = TaskSnapshot.of(movedTask);
+        taskAuditService.recordChanges(id, snapshot, moved);
+        taskCounterService.apply(snapshot, moved);
+        taskQueryCoalescer.invalidateAfterCommit();
+        taskFilterIndex.refreshAfterCommit(List.of(id));
+
+        TaskDTO result = taskMapper.map(movedTask);
+        outboxService.appendTaskEvent(OutboxService.TASK_UPDATED, result);
+        return result;
     }
 
     @Override
+    @Transactional
     public void deleteTask(Long id) {
-        taskRepository.deleteById(id);
+        taskRepository.findById(id).ifPresent(task -> {
+            TaskSnapshot before = TaskSnapshot.of(task);
+            TaskDTO deleted = taskMapper.map(task);
+            taskRepository.delete(task);
+            taskAuditService.recordChanges(id, before, null);
+            taskCounterService.apply(before, null);
+            taskQueryCoalescer.invalidateAfterCommit();
+            taskFilterIndex.refreshAfterCommit(List.of(id));
+            outboxService.appendTaskEvent(OutboxService.TASK_DELETED, deleted);
+        });
     }
 
+    private Task findTask(Long id) {
+        return taskRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Task not found with id: " + id));
+    }
 }
\ No newline at end of file
@@ -0,0 +1,46 @@
+package hexlet.code.service;
+
+import hexlet.code.model.Label;
+import hexlet.code.model.Task;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+public record TaskSnapshot(
+        Long id,
+        String title,
+        String content,
+        Integer index,
+        String status,
+        Long assigneeId,
+        TreeSet<Long> labelIds) {
+
+    public static TaskSnapshot of(Task task) {
+        return new TaskSnapshot(
+                task.getId(),
+                task.getName(),
+                task.getDescription(),
+                task.getIndex(),
+                task.getTaskStatus() != null ? task.getTaskStatus().getSlug() : null,
+                task.getAssignee() != null ? task.getAssignee().getId() : null,
+                task.getLabels() == null ? new TreeSet<>() : task.getLabels().stream()
+                        .map(Label::getId)
+                        .collect(Collectors.toCollection(TreeSet::new)));
+    }
+
+    public Map<String, String> fields() {
+        Map<String, String> fields = new LinkedHashMap<>();
+        fields.put("title", title);
+        fields.put("content", content);
+        fields.put("index", Objects.toString(index, null));
+        fields.put("status", status);
+        fields.put("assignee", Objects.toString(assigneeId, null));
+        fields.put("labels", labelIds.isEmpty() ? null : labelIds.stream()
+                .map(String::valueOf)
+                .collect(Collectors.joining(",")));
+        return fields;
+    }
+}
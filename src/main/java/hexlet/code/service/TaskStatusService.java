@@ -2,14 +2,16 @@ package hexlet.code.service;
 
 import hexlet.code.dto.TaskStatusCreateDTO;
 import hexlet.code.dto.TaskStatusDTO;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 
-import java.util.List;
+import java.util.Collection;
 
 public interface TaskStatusService {
-    List<TaskStatusDTO> getAllStatuses();
+    Page<TaskStatusDTO> getAllStatuses(Collection<Long> ids, Collection<String> fields, Pageable pageable);
     TaskStatusDTO getStatusById(Long id);
     TaskStatusDTO getStatusBySlug(String slug);
     TaskStatusDTO createStatus(TaskStatusCreateDTO taskStatusCreateDTO, String username);
-    TaskStatusDTO updateTaskStatus(Long id, TaskStatusDTO taskStatusUpdateDTO);
+    TaskStatusDTO updateTaskStatus(Long id, TaskStatusDTO taskStatusUpdateDTO, Long expectedVersion);
     void deleteTaskStatus(Long id);
 }
@@ -2,61 +2,89 @@ package hexlet.code.service;
 
 import hexlet.code.dto.TaskStatusCreateDTO;
 import hexlet.code.dto.TaskStatusDTO;
+import hexlet.code.exception.PreconditionFailedException;
 import hexlet.code.exception.ResourceNotFoundException;
 import hexlet.code.mapper.TaskStatusMapper;
 import hexlet.code.model.TaskStatus;
+import hexlet.code.repository.EntityProjections;
 import hexlet.code.repository.TaskStatusRepository;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Collection;
 
 @Service
 public class TaskStatusServiceImpl implements TaskStatusService {
     private final TaskStatusRepository taskStatusRepository;
     private final TaskStatusMapper taskStatusMapper;
+    private final TaskFilterIndex taskFilterIndex;
+    private final TaskQueryCoalescer taskQueryCoalescer;
+    private final EntityProjections entityProjections;
     
     public TaskStatusServiceImpl(
             TaskStatusRepository taskStatusRepository,
-            TaskStatusMapper taskStatusMapper) {
+            TaskStatusMapper taskStatusMapper,
+            TaskFilterIndex taskFilterIndex,
+            TaskQueryCoalescer taskQueryCoalescer,
+            EntityProjections entityProjections) {
         this.taskStatusRepository = taskStatusRepository;
         this.taskStatusMapper = taskStatusMapper;
+        this.taskFilterIndex = taskFilterIndex;
+        this.taskQueryCoalescer = taskQueryCoalescer;
+        this.entityProjections = entityProjections;
     }
 
-    public List<TaskStatusDTO> getAllStatuses() {
-        return taskStatusRepository.findAll().stream()
-                .map(taskStatusMapper::map)
-                .collect(Collectors.toList());
+    @Transactional(readOnly = true)
+    public Page<TaskStatusDTO> getAllStatuses(Collection<Long> ids, Collection<String> fields, Pageable pageable) {
+        if (fields != null) {
+            return entityProjections.findAll(TaskStatus.class, fields, ids, pageable).map(taskStatusMapper::map);
+        }
+        Page<TaskStatus> page = ids == null
+                ? taskStatusRepository.findAll(pageable)
+                : taskStatusRepository.findByIdIn(ids, pageable);
+        return page.map(taskStatusMapper::map);
     }
 
+    @Transactional(readOnly = true)
     public TaskStatusDTO getStatusById(Long id) {
         TaskStatus status = taskStatusRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Task status not found with id: " + id));
         return taskStatusMapper.map(status);
     }
     
+    @Transactional(readOnly = true)
     public TaskStatusDTO getStatusBySlug(String slug) {
         TaskStatus status = taskStatusRepository.findBySlug(slug)
                 .orElseThrow(() -> new ResourceNotFoundException("Task status not found with slug: " + slug));
         return taskStatusMapper.map(status);
     }
 
+    @Transactional
     public TaskStatusDTO createStatus(TaskStatusCreateDTO taskStatusCreateDTO, String username) {
         TaskStatus taskStatus = taskStatusMapper.map(taskStatusCreateDTO);
         TaskStatus savedTaskStatus = taskStatusRepository.save(taskStatus);
         return taskStatusMapper.map(savedTaskStatus);
     }
 
-    public TaskStatusDTO updateTaskStatus(Long id, TaskStatusDTO taskStatusUpdateDTO) {
+    @Transactional
+    public TaskStatusDTO updateTaskStatus(Long id, TaskStatusDTO taskStatusUpdateDTO, Long expectedVersion) {
         TaskStatus taskStatus = taskStatusRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Task status not found with id: " + id));
+        PreconditionFailedException.checkVersion(expectedVersion, taskStatus.getVersion());
 
         taskStatusMapper.update(taskStatusUpdateDTO, taskStatus);
-        TaskStatus updatedTaskStatus = taskStatusRepository.save(taskStatus);
+        TaskStatus updatedTaskStatus = taskStatusRepository.saveAndFlush(taskStatus);
+        taskFilterIndex.renameStatusAfterCommit(updatedTaskStatus.getId(), updatedTaskStatus.getSlug());
+        // Cached task lists carry the status slug
+        taskQueryCoalescer.invalidateAfterCommit();
         return taskStatusMapper.map(updatedTaskStatus);
     }
 
+    @Transactional
     public void deleteTaskStatus(Long id) {
         taskStatusRepository.deleteById(id);
+        taskQueryCoalescer.invalidateAfterCommit();
     }
 }
\ No newline at end of file
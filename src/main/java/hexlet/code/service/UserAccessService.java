@@ -0,0 +1,36 @@
+package hexlet.code.service;
+
+import hexlet.code.exception.ResourceNotFoundException;
+import hexlet.code.repository.UserRepository;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Service;
+
+@Service
+public class UserAccessService {
+
+    private final UserRepository userRepository;
+
+    public UserAccessService(UserRepository userRepository) {
+        this.userRepository = userRepository;
+    }
+
+    // The id comes from the token, so the common case (acting on your own account) needs no query;
+    // only a rejection looks the user up, to keep answering 404 rather than 403 for unknown ids
+    public boolean isCurrentUser(Long id, Authentication authentication) {
+        if (authentication == null) {
+            return false;
+        }
+        if (authentication.getPrincipal() instanceof AuthenticatedUser user && user.getId() != null) {
+            if (user.getId().equals(id)) {
+                return true;
+            }
+            if (!userRepository.existsById(id)) {
+                throw new ResourceNotFoundException("User not found with id: " + id);
+            }
+            return false;
+        }
+        return userRepository.findById(id)
+                .map(user -> user.getEmail().equals(authentication.getName()))
+                .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + id));
+    }
+}
@@ -3,13 +3,15 @@ package hexlet.code.service;
 import hexlet.code.dto.UserCreateDTO;
 import hexlet.code.dto.UserDTO;
 import hexlet.code.dto.UserUpdateDTO;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 
-import java.util.List;
+import java.util.Collection;
 
 public interface UserService {
-    List<UserDTO> getAllUsers();
+    Page<UserDTO> getAllUsers(Collection<Long> ids, Collection<String> fields, Pageable pageable);
     UserDTO getUserById(Long id);
     UserDTO createUser(UserCreateDTO userCreateDTO);
-    UserDTO updateUser(Long id, UserUpdateDTO userUpdateDTO);
+    UserDTO updateUser(Long id, UserUpdateDTO userUpdateDTO, Long expectedVersion);
     void deleteUser(Long id);
 }
\ No newline at end of file
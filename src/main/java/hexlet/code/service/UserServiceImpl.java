@@ -3,17 +3,21 @@ package hexlet.code.service;
 import hexlet.code.dto.UserCreateDTO;
 import hexlet.code.dto.UserDTO;
 import hexlet.code.dto.UserUpdateDTO;
+import hexlet.code.exception.PreconditionFailedException;
 import hexlet.code.exception.ResourceNotFoundException;
 import hexlet.code.mapper.UserMapper;
 import hexlet.code.model.User;
+import hexlet.code.repository.EntityProjections;
 import hexlet.code.repository.TaskRepository;
 import hexlet.code.repository.UserRepository;
 import lombok.AllArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
-import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Collection;
 
 @Service
 @AllArgsConstructor
@@ -23,15 +27,23 @@ public class UserServiceImpl implements UserService {
     private final PasswordEncoderService passwordEncoder;
     private final TaskRepository taskRepository;
     private final UserMapper userMapper;
+    private final EntityProjections entityProjections;
+    private final SuggestIndex suggestIndex;
+    private final TaskQueryCoalescer taskQueryCoalescer;
+    private final RefreshTokenService refreshTokenService;
 
     @Override
-    public List<UserDTO> getAllUsers() {
-        return userRepository.findAll().stream()
-                .map(userMapper::map)
-                .collect(Collectors.toList());
+    @Transactional(readOnly = true)
+    public Page<UserDTO> getAllUsers(Collection<Long> ids, Collection<String> fields, Pageable pageable) {
+        if (fields != null) {
+            return entityProjections.findAll(User.class, fields, ids, pageable).map(userMapper::map);
+        }
+        Page<User> page = ids == null ? userRepository.findAll(pageable) : userRepository.findByIdIn(ids, pageable);
+        return page.map(userMapper::map);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public UserDTO getUserById(Long id) {
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + id));
@@ -39,32 +51,44 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
+    @Transactional
     public UserDTO createUser(UserCreateDTO userCreateDTO) {
         User user = userMapper.map(userCreateDTO);
         user.setPassword(passwordEncoder.encode(userCreateDTO.getPassword()));
         
         User savedUser = userRepository.save(user);
+        suggestIndex.userSaved(savedUser);
         return userMapper.map(savedUser);
     }
 
     @Override
-    public UserDTO updateUser(Long id, UserUpdateDTO userUpdateDTO) {
+    @Transactional
+    public UserDTO updateUser(Long id, UserUpdateDTO userUpdateDTO, Long expectedVersion) {
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + id));
+        PreconditionFailedException.checkVersion(expectedVersion, user.getVersion());
+        String previousEmail = user.getEmail();
 
         userMapper.update(userUpdateDTO, user);
         
         if (userUpdateDTO.getPassword() != null) {
             user.setPassword(passwordEncoder.encode(userUpdateDTO.getPassword()));
+            // Sessions opened with the old password must not outlive it; refresh tokens are stored by the old email
+            refreshTokenService.revokeAll(previousEmail);
         }
 
         user.setUpdatedAt(Instant.now());
-        User updatedUser = userRepository.save(user);
+        User updatedUser = userRepository.saveAndFlush(user);
+        suggestIndex.userSaved(updatedUser);
+        taskQueryCoalescer.invalidateAfterCommit();
         return userMapper.map(updatedUser);
     }
 
     @Override
+    @Transactional
     public void deleteUser(Long id) {
         userRepository.deleteById(id);
+        suggestIndex.userDeleted(id);
+        taskQueryCoalescer.invalidateAfterCommit();
     }
 }
\ No newline at end of file
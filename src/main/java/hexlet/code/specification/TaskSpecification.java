@@ -1,19 +1,40 @@
 package hexlet.code.specification;
 
 import hexlet.code.model.Task;
-import jakarta.persistence.criteria.JoinType;
 import org.springframework.data.jpa.domain.Specification;
 
+import java.util.List;
+import java.util.Locale;
+
 public final class TaskSpecification {
+    public static final char LIKE_ESCAPE = '\\';
+
+    public static Specification<Task> filter(String titleCont, Long assigneeId, String status, Long labelId) {
+        return Specification.allOf(
+                titleContains(titleCont),
+                hasAssigneeId(assigneeId),
+                hasStatusSlug(status),
+                hasLabelId(labelId));
+    }
+
     public static Specification<Task> titleContains(String titleCont) {
         return (root, query, cb) -> {
             if (titleCont == null || titleCont.isBlank()) {
                 return cb.conjunction();
             }
-            return cb.like(cb.lower(root.get("name")), "%" + titleCont.toLowerCase() + "%");
+            return cb.like(cb.lower(root.get("name")), containsPattern(titleCont), LIKE_ESCAPE);
         };
     }
 
+    // Matches titleCont literally, the way the filter index does, so % and _ are not wildcards
+    public static String containsPattern(String titleCont) {
+        String escaped = titleCont.toLowerCase(Locale.ROOT)
+                .replace(String.valueOf(LIKE_ESCAPE), String.valueOf(LIKE_ESCAPE) + LIKE_ESCAPE)
+                .replace("%", LIKE_ESCAPE + "%")
+                .replace("_", LIKE_ESCAPE + "_");
+        return "%" + escaped + "%";
+    }
+
     public static Specification<Task> hasAssigneeId(Long assigneeId) {
         return (root, query, cb) -> {
             if (assigneeId == null) {
@@ -37,9 +58,20 @@ public final class TaskSpecification {
             if (labelId == null) {
                 return cb.conjunction();
             }
-            query.distinct(true);
-            var labelsJoin = root.join("labels", JoinType.LEFT);
-            return cb.equal(labelsJoin.get("id"), labelId);
+            var subquery = query.subquery(Long.class);
+            var taskRoot = subquery.from(Task.class);
+            var labelsJoin = taskRoot.join("labels");
+            subquery.select(taskRoot.get("id")).where(cb.equal(labelsJoin.get("id"), labelId));
+            return root.get("id").in(subquery);
+        };
+    }
+
+    public static Specification<Task> hasIdIn(List<Long> ids) {
+        return (root, query, cb) -> {
+            if (ids == null || ids.isEmpty()) {
+                return cb.conjunction();
+            }
+            return root.get("id").in(ids);
         };
     }
 }
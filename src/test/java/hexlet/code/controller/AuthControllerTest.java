@@ -2,6 +2,8 @@ package hexlet.code.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import hexlet.code.dto.LoginRequestDTO;
+import hexlet.code.dto.TokenPairDTO;
+import hexlet.code.dto.UserUpdateDTO;
 import hexlet.code.model.User;
 import hexlet.code.repository.TaskRepository;
 import hexlet.code.repository.UserRepository;
@@ -13,17 +15,26 @@ import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMock
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.http.MediaType;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.MvcResult;
 
 import java.time.Instant;
+import java.util.Map;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.emptyString;
 import static org.hamcrest.Matchers.not;
 import static org.hamcrest.Matchers.notNullValue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @SpringBootTest
@@ -82,6 +93,25 @@ public class AuthControllerTest {
                 .andExpect(content().string(not(emptyString())));
     }
 
+    @Test
+    void testLoginRehashesPasswordWithConfiguredCost() throws Exception {
+        testUser.setPassword(new BCryptPasswordEncoder(4).encode(TEST_PASSWORD));
+        userRepository.save(testUser);
+
+        LoginRequestDTO loginRequest = new LoginRequestDTO();
+        loginRequest.setUsername(TEST_EMAIL);
+        loginRequest.setPassword(TEST_PASSWORD);
+
+        mockMvc.perform(post("/api/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(loginRequest)))
+                .andExpect(status().isOk());
+
+        String storedPassword = userRepository.findByEmail(TEST_EMAIL).orElseThrow().getPassword();
+        assertThat(storedPassword).startsWith("{bcrypt}$2a$10$");
+        assertThat(passwordEncoder.matches(TEST_PASSWORD, storedPassword)).isTrue();
+    }
+
     @Test
     void testLoginWithInvalidPassword() throws Exception {
         LoginRequestDTO loginRequest = new LoginRequestDTO();
@@ -94,6 +124,169 @@ public class AuthControllerTest {
                 .andExpect(status().isUnauthorized());
     }
 
+    @Test
+    void testRepeatedFailedLoginsAreThrottled() throws Exception {
+        User throttledUser = user("throttled@example.com");
+
+        for (int i = 0; i < 5; i++) {
+            login(throttledUser.getEmail(), "wrongpassword", "10.0.2.1")
+                    .andExpect(status().isUnauthorized());
+        }
+
+        login(throttledUser.getEmail(), TEST_PASSWORD, "10.0.2.1")
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().exists("Retry-After"));
+        // Failures from another address cannot lock the owner out
+        login(throttledUser.getEmail(), TEST_PASSWORD, "10.0.2.2")
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void testSuccessfulLoginResetsFailures() throws Exception {
+        User forgetfulUser = user("forgetful@example.com");
+
+        for (int round = 0; round < 3; round++) {
+            for (int i = 0; i < 4; i++) {
+                login(forgetfulUser.getEmail(), "wrongpassword", "10.0.3.1")
+                        .andExpect(status().isUnauthorized());
+            }
+            login(forgetfulUser.getEmail(), TEST_PASSWORD, "10.0.3.1")
+                    .andExpect(status().isOk());
+        }
+    }
+
+    private User user(String email) {
+        User user = new User();
+        user.setEmail(email);
+        user.setPassword(passwordEncoder.encode(TEST_PASSWORD));
+        user.setCreatedAt(Instant.now());
+        user.setUpdatedAt(Instant.now());
+        return userRepository.save(user);
+    }
+
+    private ResultActions login(String username, String password, String remoteAddress) throws Exception {
+        LoginRequestDTO loginRequest = new LoginRequestDTO();
+        loginRequest.setUsername(username);
+        loginRequest.setPassword(password);
+        return mockMvc.perform(post("/api/login")
+                .with(request -> {
+                    request.setRemoteAddr(remoteAddress);
+                    return request;
+                })
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(loginRequest)));
+    }
+
+    @Test
+    void testRefreshTokenIsRotatedAndSingleUse() throws Exception {
+        MvcResult login = login();
+        String refreshToken = login.getResponse().getHeader("X-Refresh-Token");
+        assertThat(refreshToken).isNotBlank();
+
+        String response = mockMvc.perform(post("/api/refresh")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(Map.of("refreshToken", refreshToken))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.accessToken").isNotEmpty())
+                .andExpect(jsonPath("$.expiresIn").isNumber())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+        TokenPairDTO pair = objectMapper.readValue(response, TokenPairDTO.class);
+        assertThat(pair.getRefreshToken()).isNotEqualTo(refreshToken);
+
+        mockMvc.perform(get("/api/users")
+                .header("Authorization", "Bearer " + pair.getAccessToken()))
+                .andExpect(status().isOk());
+
+        // Replaying the old token is treated as theft and also kills the token it was rotated into
+        mockMvc.perform(post("/api/refresh")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(Map.of("refreshToken", refreshToken))))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(post("/api/refresh")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(Map.of("refreshToken", pair.getRefreshToken()))))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void testLogoutRevokesAccessAndRefreshTokens() throws Exception {
+        MvcResult login = login();
+        String token = login.getResponse().getContentAsString();
+        String refreshToken = login.getResponse().getHeader("X-Refresh-Token");
+
+        mockMvc.perform(post("/api/logout")
+                .header("Authorization", "Bearer " + token)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(Map.of("refreshToken", refreshToken))))
+                .andExpect(status().isNoContent());
+
+        mockMvc.perform(get("/api/users")
+                .header("Authorization", "Bearer " + token))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(post("/api/refresh")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(Map.of("refreshToken", refreshToken))))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void testRevokeAllTokens() throws Exception {
+        String firstRefreshToken = login().getResponse().getHeader("X-Refresh-Token");
+        String token = login().getResponse().getContentAsString();
+
+        mockMvc.perform(delete("/api/tokens")
+                .header("Authorization", "Bearer " + token))
+                .andExpect(status().isNoContent());
+
+        mockMvc.perform(post("/api/refresh")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(Map.of("refreshToken", firstRefreshToken))))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/api/users")
+                .header("Authorization", "Bearer " + token))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void testPasswordChangeRevokesRefreshTokens() throws Exception {
+        MvcResult login = login();
+        String token = login.getResponse().getContentAsString();
+        String refreshToken = login.getResponse().getHeader("X-Refresh-Token");
+
+        UserUpdateDTO rename = new UserUpdateDTO();
+        rename.setFirstName("Renamed");
+        updateUser(token, rename);
+        String rotated = refresh(refreshToken)
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+        String rotatedRefreshToken = objectMapper.readValue(rotated, TokenPairDTO.class).getRefreshToken();
+
+        UserUpdateDTO passwordChange = new UserUpdateDTO();
+        passwordChange.setPassword("newPassword123");
+        updateUser(token, passwordChange);
+
+        refresh(rotatedRefreshToken)
+                .andExpect(status().isUnauthorized());
+    }
+
+    private void updateUser(String token, UserUpdateDTO update) throws Exception {
+        mockMvc.perform(put("/api/users/{id}", testUser.getId())
+                .header("Authorization", "Bearer " + token)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(update)))
+                .andExpect(status().isOk());
+    }
+
+    private ResultActions refresh(String refreshToken) throws Exception {
+        return mockMvc.perform(post("/api/refresh")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(Map.of("refreshToken", refreshToken))));
+    }
+
     @Test
     void testLoginWithNonExistentUser() throws Exception {
         LoginRequestDTO loginRequest = new LoginRequestDTO();
@@ -157,4 +350,16 @@ public class AuthControllerTest {
                 .header("Authorization", "Bearer " + token))
                 .andExpect(status().isOk());
     }
-}
\ No newline at end of file
+
+    private MvcResult login() throws Exception {
+        LoginRequestDTO loginRequest = new LoginRequestDTO();
+        loginRequest.setUsername(TEST_EMAIL);
+        loginRequest.setPassword(TEST_PASSWORD);
+
+        return mockMvc.perform(post("/api/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(loginRequest)))
+                .andExpect(status().isOk())
+                .andReturn();
+    }
+}
@@ -0,0 +1,191 @@
+package hexlet.code.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import hexlet.code.dto.LoginRequestDTO;
+import hexlet.code.model.Label;
+import hexlet.code.model.Task;
+import hexlet.code.model.TaskStatus;
+import hexlet.code.model.User;
+import hexlet.code.repository.LabelRepository;
+import hexlet.code.repository.TaskRepository;
+import hexlet.code.repository.TaskStatusRepository;
+import hexlet.code.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.Instant;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+public class BoardControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private TaskStatusRepository taskStatusRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private LabelRepository labelRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    private User testUser;
+    private TaskStatus newStatus;
+    private TaskStatus doneStatus;
+    private Label testLabel;
+    private final String TEST_PASSWORD = "password";
+
+    @BeforeEach
+    void setUp() {
+        taskRepository.deleteAll();
+        labelRepository.deleteAll();
+        taskStatusRepository.deleteAll();
+        userRepository.deleteAll();
+
+        testUser = new User();
+        testUser.setEmail("test@example.com");
+        testUser.setFirstName("Test");
+        testUser.setLastName("User");
+        testUser.setPassword(passwordEncoder.encode(TEST_PASSWORD));
+        testUser.setCreatedAt(Instant.now());
+        testUser.setUpdatedAt(Instant.now());
+        userRepository.save(testUser);
+
+        newStatus = createStatus("New", "new");
+        doneStatus = createStatus("Done", "done");
+        createStatus("Archived", "archived");
+
+        testLabel = new Label();
+        testLabel.setName("Test Label");
+        testLabel.setCreatedAt(Instant.now());
+        labelRepository.save(testLabel);
+
+        createTask("First Task", newStatus, 2, testUser, testLabel);
+        createTask("Second Task", newStatus, 1, testUser, testLabel);
+        createTask("Third Task", doneStatus, null, null, null);
+    }
+
+    private TaskStatus createStatus(String name, String slug) {
+        TaskStatus taskStatus = new TaskStatus();
+        taskStatus.setName(name);
+        taskStatus.setSlug(slug);
+        taskStatus.setCreatedAt(Instant.now());
+        return taskStatusRepository.save(taskStatus);
+    }
+
+    private void createTask(String name, TaskStatus taskStatus, Integer index, User assignee, Label label) {
+        Task task = new Task();
+        task.setName(name);
+        task.setDescription(name + " description");
+        task.setIndex(index);
+        task.setTaskStatus(taskStatus);
+        task.setAssignee(assignee);
+        task.setCreatedAt(Instant.now());
+        if (label != null) {
+            task.getLabels().add(label);
+        }
+        taskRepository.save(task);
+    }
+
+    private String getToken(String username, String password) throws Exception {
+        LoginRequestDTO loginRequest = new LoginRequestDTO();
+        loginRequest.setUsername(username);
+        loginRequest.setPassword(password);
+
+        return mockMvc.perform(post("/api/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(loginRequest)))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+    }
+
+    @Test
+    void testGetBoard() throws Exception {
+        String token = getToken(testUser.getEmail(), TEST_PASSWORD);
+
+        mockMvc.perform(get("/api/board")
+                .header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.columns.length()").value(3))
+                .andExpect(jsonPath("$.columns[0].slug").value("new"))
+                .andExpect(jsonPath("$.columns[0].tasks.length()").value(2))
+                .andExpect(jsonPath("$.columns[0].tasks[0].title").value("Second Task"))
+                .andExpect(jsonPath("$.columns[0].tasks[0].content").value("Second Task description"))
+                .andExpect(jsonPath("$.columns[0].tasks[1].title").value("First Task"))
+                .andExpect(jsonPath("$.columns[1].slug").value("done"))
+                .andExpect(jsonPath("$.columns[1].tasks.length()").value(1))
+                .andExpect(jsonPath("$.columns[2].slug").value("archived"))
+                .andExpect(jsonPath("$.columns[2].tasks.length()").value(0))
+                .andExpect(jsonPath("$.users.length()").value(1))
+                .andExpect(jsonPath("$.users[0].id").value(testUser.getId()))
+                .andExpect(jsonPath("$.labels.length()").value(1))
+                .andExpect(jsonPath("$.labels[0].id").value(testLabel.getId()));
+    }
+
+    @Test
+    void testGetBoardSummaryView() throws Exception {
+        String token = getToken(testUser.getEmail(), TEST_PASSWORD);
+
+        mockMvc.perform(get("/api/board")
+                .param("view", "summary")
+                .header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.columns[0].tasks.length()").value(2))
+                .andExpect(jsonPath("$.columns[0].tasks[0].title").value("Second Task"))
+                .andExpect(jsonPath("$.columns[0].tasks[0].taskLabelIds[0]").value(testLabel.getId()))
+                .andExpect(jsonPath("$.columns[0].tasks[0].content").doesNotExist());
+    }
+
+    @Test
+    void testGetBoardWithFilters() throws Exception {
+        String token = getToken(testUser.getEmail(), TEST_PASSWORD);
+
+        mockMvc.perform(get("/api/board")
+                .param("status", doneStatus.getSlug())
+                .header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.columns[0].tasks.length()").value(0))
+                .andExpect(jsonPath("$.columns[1].tasks.length()").value(1))
+                .andExpect(jsonPath("$.users.length()").value(0))
+                .andExpect(jsonPath("$.labels.length()").value(0));
+
+        mockMvc.perform(get("/api/board")
+                .param("labelId", testLabel.getId().toString())
+                .param("titleCont", "first")
+                .header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.columns[0].tasks.length()").value(1))
+                .andExpect(jsonPath("$.columns[0].tasks[0].title").value("First Task"))
+                .andExpect(jsonPath("$.columns[0].tasks[0].taskLabelIds[0]").value(testLabel.getId()));
+    }
+
+    @Test
+    void testGetBoardRequiresAuthentication() throws Exception {
+        mockMvc.perform(get("/api/board"))
+                .andExpect(status().isUnauthorized());
+    }
+}
@@ -22,6 +22,7 @@ import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
@@ -34,6 +35,7 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -126,6 +128,48 @@ public class LabelControllerTest {
                         )));
     }
 
+    @Test
+    void testGetAllLabelsIsBounded() throws Exception {
+        List<Label> extra = new ArrayList<>();
+        for (int i = 0; i < Pagination.MAX_PAGE_SIZE + 5; i++) {
+            Label label = new Label();
+            label.setName("Bounded label " + i);
+            label.setCreatedAt(Instant.now());
+            extra.add(label);
+        }
+        labelRepository.saveAll(extra);
+        String token = getToken(testUser.getEmail(), TEST_PASSWORD);
+
+        mockMvc.perform(get("/api/labels")
+                        .param("_start", "0")
+                        .param("_end", "1000")
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Total-Count", String.valueOf(labelRepository.count())))
+                .andExpect(jsonPath("$", hasSize(Pagination.MAX_PAGE_SIZE)));
+
+        labelRepository.deleteAll(extra);
+    }
+
+    @Test
+    void testGetAllLabelsWithFields() throws Exception {
+        String token = getToken(testUser.getEmail(), TEST_PASSWORD);
+
+        mockMvc.perform(get("/api/labels")
+                        .param("fields", "name")
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(labelRepository.findAll().size())))
+                .andExpect(jsonPath("$[?(@.id == %d)].name", testLabel.getId()).value(testLabel.getName()))
+                .andExpect(jsonPath("$[0].createdAt").doesNotExist())
+                .andExpect(jsonPath("$[0].version").doesNotExist());
+
+        mockMvc.perform(get("/api/labels")
+                        .param("fields", "name,tasks")
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(status().isBadRequest());
+    }
+
 
     @Test
     void testGetLabelById() throws Exception {
@@ -2,16 +2,32 @@ package hexlet.code.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import hexlet.code.dto.LoginRequestDTO;
+import hexlet.code.dto.TaskBulkUpdateDTO;
 import hexlet.code.dto.TaskCreateDTO;
+import hexlet.code.dto.TaskFilterDTO;
+import hexlet.code.dto.TaskMoveDTO;
 import hexlet.code.dto.TaskUpdateDTO;
 import hexlet.code.model.Label;
 import hexlet.code.model.Task;
 import hexlet.code.model.TaskStatus;
 import hexlet.code.model.User;
+import hexlet.code.model.OutboxEvent;
 import hexlet.code.repository.LabelRepository;
+import hexlet.code.repository.OutboxEventRepository;
+import hexlet.code.repository.TaskHistoryRepository;
 import hexlet.code.repository.TaskRepository;
 import hexlet.code.repository.TaskStatusRepository;
 import hexlet.code.repository.UserRepository;
+import hexlet.code.service.OutboxRelay;
+import hexlet.code.service.OutboxService;
+import hexlet.code.service.TaskAuditService;
+import hexlet.code.service.TaskCounterService;
+import hexlet.code.service.TaskSnapshot;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -20,16 +36,25 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -52,12 +77,36 @@ public class TaskControllerTest {
     @Autowired
     private LabelRepository labelRepository;
 
+    @Autowired
+    private TaskHistoryRepository taskHistoryRepository;
+
+    @Autowired
+    private TaskAuditService taskAuditService;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private OutboxRelay outboxRelay;
+
+    @Autowired
+    private TaskCounterService taskCounterService;
+
     @Autowired
     private ObjectMapper objectMapper;
 
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
     private User testUser;
     private TaskStatus testTaskStatus;
     private Task testTask;
@@ -66,6 +115,8 @@ public class TaskControllerTest {
 
     @BeforeEach
     void setUp() {
+        taskHistoryRepository.deleteAll();
+        outboxEventRepository.deleteAll();
         taskRepository.deleteAll();
         labelRepository.deleteAll();
         taskStatusRepository.deleteAll();
@@ -131,6 +182,66 @@ public class TaskControllerTest {
                 .andExpect(jsonPath("$[0].assignee_id").value(testUser.getId()));
     }
 
+    @Test
+    void testRequestConnectionHoldTimeIsRecorded() throws Exception {
+        String token = getToken(testUser.getEmail(), TEST_PASSWORD);
+        Timer requestHold = meterRegistry.find("http.server.requests.connection.hold")
+                .tags("method", "GET", "uri", "/api/tasks/{id}")
+                .timer();
+        long before = requestHold == null ? 0 : requestHold.count();
+
+        mockMvc.perform(get("/api/tasks/{id}", testTask.getId())
+                .header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk());
+
+        requestHold = meterRegistry.get("http.server.requests.connection.hold")
+                .tags("method", "GET", "uri", "/api/tasks/{id}")
+                .timer();
+        assertThat(requestHold.count()).isEqualTo(before + 1);
+        assertThat(meterRegistry.get("hikaricp.connections.usage").timer().count()).isPositive();
+        assertThat(meterRegistry.find("hikaricp.connections.max").gauge()).isNotNull();
+    }
+
+    @Test
+    void testGetAllTasksSummaryView() throws Exception {
+        String token = getToken(testUser.getEmail(), TEST_PASSWORD);
+
+        mockMvc.perform(get("/api/tasks")
+                .param("view", "summary")
+                .header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Total-Count", "1"))
+                .andExpect(jsonPath("$[0].id").value(testTask.getId()))
+                .andExpect(jsonPath("$[0].title").value(testTask.getName()))
+                .andExpect(jsonPath("$[0].status").value(testTaskStatus.getSlug()))
+                .andExpect(jsonPath("$[0].assignee_id").value(testUser.getId()))
+                .andExpect(jsonPath("$[0].content").doesNotExist());
+    }
+
+    @Test
+    void testGetAllTasksWithFields() throws Exception {
+        String token = getToken(testUser.getEmail(), TEST_PASSWORD);
+
+        mockMvc.perform(get("/api/tasks")
+                .param("fields", "title,status")
+                .header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Total-Count", "1"))
+                .andExpect(jsonPath("$[0].id").value(testTask.getId()))
+                .andExpect(jsonPath("$[0].title").value(testTask.getName()))
+                .andExpect(jsonPath("$[0].status").value(testTaskStatus.getSlug()))
+                .andExpect(jsonPath("$[0].content").doesNotExist())
+                .andExpect(jsonPath("$[0].taskLabelIds").doesNotExist())
+                .andExpect(jsonPath("$[0].assignee_id").doesNotExist());
+
+        mockMvc.perform(get("/api/tasks")
+                .param("fields", "content")
+                .header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].content").value(testTask.getDescription()))
+                .andExpect(jsonPath("$[0].title").doesNotExist());
+    }
+
     @Test
     void testGetTaskById() throws Exception {
         String token = getToken(testUser.getEmail(), TEST_PASSWORD);
@@ -172,6 +283,43 @@ public class TaskControllerTest {
         assertThat(tasks.stream().anyMatch(t -> t.getName().equals(newTask.getTitle()))).isTrue();
     }
 
+    @Test
+    void testConcurrentCreateTaskWithIdempotencyKeyRunsOnce() throws Exception {
+        String token = getToken(testUser.getEmail(), TEST_PASSWORD);
+
+        TaskCreateDTO newTask = new TaskCreateDTO();
+        newTask.setTitle("Retried Task");
+        newTask.setStatus(testTaskStatus.getSlug());
+        String body = objectMapper.writeValueAsString(newTask);
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<String>> responses = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                responses.add(executor.submit(() -> mockMvc.perform(post("/api/tasks")
+                        .header("Authorization", "Bearer " + token)
+                        .header("Idempotency-Key", "create-task-1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                        .andExpect(status().isCreated())
+                        .andReturn()
+                        .getResponse()
+                        .getContentAsString()));
+            }
+            Set<String> distinct = new HashSet<>();
+            for (Future<String> response : responses) {
+                distinct.add(response.get());
+            }
+            assertThat(distinct).hasSize(1);
+        } finally {
+            executor.shutdown();
+        }
+
+        assertThat(taskRepository.findAll())
+                .filteredOn(task -> task.getName().equals("Retried Task"))
+                .hasSize(1);
+    }
+
     @Test
     void testUpdateTask() throws Exception {
         String token = getToken(testUser.getEmail(), TEST_PASSWORD);
@@ -197,6 +345,85 @@ public class TaskControllerTest {
         assertThat(updatedTask.getDescription()).isEqualTo(updateTask.getContent());
     }
 
+    @Test
+    void testUpdateTaskLabelsWritesOnlyTheDiff() throws Exception {
+        String token = getToken(testUser.getEmail(), TEST_PASSWORD);
+        Label otherLabel = new Label();
+        otherLabel.setName("Other Label");
+        otherLabel.setCreatedAt(Instant.now());
+        labelRepository.save(otherLabel);
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        try {
+            TaskUpdateDTO unchanged = new TaskUpdateDTO();
+            unchanged.setLabelIds(Set.of(testLabel.getId()));
+            statistics.clear();
+            mockMvc.perform(put("/api/tasks/{id}", testTask.getId())
+                    .header("Authorization", "Bearer " + token)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(unchanged)))
+                    .andExpect(status().isOk());
+            assertThat(statistics.getCollectionUpdateCount()).isZero();
+            assertThat(statistics.getCollectionRecreateCount()).isZero();
+
+            TaskUpdateDTO swapped = new TaskUpdateDTO();
+            swapped.setLabelIds(Set.of(otherLabel.getId()));
+            statistics.clear();
+            mockMvc.perform(put("/api/tasks/{id}", testTask.getId())
+                    .header("Authorization", "Bearer " + token)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(swapped)))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.taskLabelIds.length()").value(1))
+                    .andExpect(jsonPath("$.taskLabelIds[0]").value(otherLabel.getId()));
+            assertThat(statistics.getCollectionUpdateCount()).isEqualTo(1);
+            assertThat(statistics.getCollectionRecreateCount()).isZero();
+            assertThat(statistics.getCollectionRemoveCount()).isZero();
+        } finally {
+            statistics.setStatisticsEnabled(false);
+        }
+    }
+
+    @Test
+    void testUpdateTaskWithIfMatch() throws Exception {
+        String token = getToken(testUser.getEmail(), TEST_PASSWORD);
+
+        String etag = mockMvc.perform(get("/api/tasks/{id}", testTask.getId())
+                .header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("ETag"))
+                .andReturn()
+                .getResponse()
+                .getHeader("ETag");
+
+        TaskUpdateDTO firstUpdate = new TaskUpdateDTO();
+        firstUpdate.setTitle("First Writer");
+
+        String newEtag = mockMvc.perform(put("/api/tasks/{id}", testTask.getId())
+                .header("Authorization", "Bearer " + token)
+                .header("If-Match", etag)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(firstUpdate)))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getHeader("ETag");
+        assertThat(newEtag).isNotEqualTo(etag);
+
+        TaskUpdateDTO secondUpdate = new TaskUpdateDTO();
+        secondUpdate.setTitle("Second Writer");
+
+        mockMvc.perform(put("/api/tasks/{id}", testTask.getId())
+                .header("Authorization", "Bearer " + token)
+                .header("If-Match", etag)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(secondUpdate)))
+                .andExpect(status().isPreconditionFailed());
+
+        assertThat(taskRepository.findById(testTask.getId()).orElseThrow().getName()).isEqualTo("First Writer");
+    }
+
     @Test
     void testDeleteTask() throws Exception {
         String token = getToken(testUser.getEmail(), TEST_PASSWORD);
@@ -443,4 +670,446 @@ public class TaskControllerTest {
                 .andExpect(jsonPath("$").isArray())
                 .andExpect(jsonPath("$.length()").value(0));
     }
-}
\ No newline at end of file
+
+    @Test
+    void testGetTaskHistory() throws Exception {
+        String token = getToken(testUser.getEmail(), TEST_PASSWORD);
+
+        TaskStatus secondStatus = new TaskStatus();
+        secondStatus.setName("Second Status");
+        secondStatus.setSlug("second_status");
+        secondStatus.setCreatedAt(Instant.now());
+        taskStatusRepository.save(secondStatus);
+
+        TaskUpdateDTO updateTask = new TaskUpdateDTO();
+        updateTask.setTitle("Updated Task");
+        updateTask.setStatus(secondStatus.getSlug());
+
+        mockMvc.perform(put("/api/tasks/{id}", testTask.getId())
+                .header("Authorization", "Bearer " + token)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(updateTask)))
+                .andExpect(status().isOk());
+
+        taskAuditService.flush();
+
+        mockMvc.perform(get("/api/tasks/{id}/history", testTask.getId())
+                .header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[?(@.field == 'title')].oldValue").value(testTask.getName()))
+                .andExpect(jsonPath("$[?(@.field == 'title')].newValue").value("Updated Task"))
+                .andExpect(jsonPath("$[?(@.field == 'status')].oldValue").value(testTaskStatus.getSlug()))
+                .andExpect(jsonPath("$[?(@.field == 'status')].newValue").value(secondStatus.getSlug()))
+                .andExpect(jsonPath("$[0].changedBy").value(testUser.getEmail()));
+    }
+
+    @Test
+    void testGetTaskHistoryByKeyset() throws Exception {
+        String token = getToken(testUser.getEmail(), TEST_PASSWORD);
+
+        for (int i = 1; i <= 3; i++) {
+            TaskUpdateDTO updateTask = new TaskUpdateDTO();
+            updateTask.setIndex(i);
+            mockMvc.perform(put("/api/tasks/{id}", testTask.getId())
+                    .header("Authorization", "Bearer " + token)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(updateTask)))
+                    .andExpect(status().isOk());
+        }
+
+        taskAuditService.flush();
+
+        String nextCursor = mockMvc.perform(get("/api/tasks/{id}/history", testTask.getId())
+                .param("limit", "2")
+                .header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].newValue").value("3"))
+                .andExpect(jsonPath("$[1].newValue").value("2"))
+                .andExpect(header().exists("X-Next-Cursor"))
+                .andReturn()
+                .getResponse()
+                .getHeader("X-Next-Cursor");
+
+        mockMvc.perform(get("/api/tasks/{id}/history", testTask.getId())
+                .param("limit", "2")
+                .param("before", nextCursor)
+                .header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].newValue").value("1"))
+                .andExpect(header().doesNotExist("X-Next-Cursor"));
+    }
+
+    @Test
+    void testHistoryIsNotRecordedForRolledBackChanges() {
+        TaskSnapshot before = transactionTemplate.execute(
+                tx -> TaskSnapshot.of(taskRepository.findById(testTask.getId()).orElseThrow()));
+        TaskSnapshot after = new TaskSnapshot(before.id(), "Renamed", before.content(), before.index(),
+                before.status(), before.assigneeId(), before.labelIds());
+
+        transactionTemplate.executeWithoutResult(tx -> {
+            taskAuditService.recordChanges(testTask.getId(), before, after);
+            tx.setRollbackOnly();
+        });
+        taskAuditService.flush();
+        assertThat(taskHistoryRepository.findAll())
+                .noneMatch(entry -> entry.getTaskId().equals(testTask.getId()));
+
+        transactionTemplate.executeWithoutResult(
+                tx -> taskAuditService.recordChanges(testTask.getId(), before, after));
+        taskAuditService.flush();
+        assertThat(taskHistoryRepository.findAll())
+                .filteredOn(entry -> entry.getTaskId().equals(testTask.getId()))
+                .hasSize(1);
+    }
+
+    @Test
+    void testTaskChangesAreWrittenToOutbox() throws Exception {
+        String token = getToken(testUser.getEmail(), TEST_PASSWORD);
+
+        TaskCreateDTO newTask = new TaskCreateDTO();
+        newTask.setTitle("Outbox Task");
+        newTask.setStatus(testTaskStatus.getSlug());
+
+        mockMvc.perform(post("/api/tasks")
+                .header("Authorization", "Bearer " + token)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(newTask)))
+                .andExpect(status().isCreated());
+
+        mockMvc.perform(delete("/api/tasks/{id}", testTask.getId())
+                .header("Authorization", "Bearer " + token))
+                .andExpect(status().isNoContent());
+
+        List<OutboxEvent> events = outboxEventRepository.findAll();
+        assertThat(events).extracting(OutboxEvent::getEventType)
+                .containsExactlyInAnyOrder(OutboxService.TASK_CREATED, OutboxService.TASK_DELETED);
+        assertThat(events).allMatch(event -> event.getPayload().contains("\"title\""));
+
+        outboxRelay.relay();
+
+        assertThat(outboxEventRepository.findAll()).allMatch(event -> event.getPublishedAt() != null);
+    }
+
+    @Test
+    void testLoadRecountsTasks() {
+        taskCounterService.reconcile();
+        // An increment whose task never made it into the table
+        taskCounterService.apply(null, TaskSnapshot.of(testTask));
+        assertThat(taskCounterService.getStats().getTotal()).isEqualTo(taskRepository.count() + 1);
+
+        taskCounterService.load();
+        assertThat(taskCounterService.getStats().getTotal()).isEqualTo(taskRepository.count());
+    }
+
+    @Test
+    void testGetTaskStats() throws Exception {
+        String token = getToken(testUser.getEmail(), TEST_PASSWORD);
+        taskCounterService.reconcile();
+
+        mockMvc.perform(get("/api/tasks/stats")
+                .header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(1))
+                .andExpect(jsonPath("$.byStatus.test_status").value(1))
+                .andExpect(jsonPath("$.byAssignee." + testUser.getId()).value(1))
+                .andExpect(jsonPath("$.byLabel." + testLabel.getId()).value(1));
+
+        TaskCreateDTO newTask = new TaskCreateDTO();
+        newTask.setTitle("Counted Task");
+        newTask.setStatus(testTaskStatus.getSlug());
+        newTask.setTaskLabelIds(List.of(testLabel.getId()));
+
+        mockMvc.perform(post("/api/tasks")
+                .header("Authorization", "Bearer " + token)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(newTask)))
+                .andExpect(status().isCreated());
+
+        mockMvc.perform(delete("/api/tasks/{id}", testTask.getId())
+                .header("Authorization", "Bearer " + token))
+                .andExpect(status().isNoContent());
+
+        mockMvc.perform(get("/api/tasks/stats")
+                .header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(1))
+                .andExpect(jsonPath("$.byStatus.test_status").value(1))
+                .andExpect(jsonPath("$.byAssignee").isEmpty())
+                .andExpect(jsonPath("$.byLabel." + testLabel.getId()).value(1));
+    }
+
+    @Test
+    void testMoveTask() throws Exception {
+        String token = getToken(testUser.getEmail(), TEST_PASSWORD);
+
+        TaskStatus secondStatus = new TaskStatus();
+        secondStatus.setName("Second Status");
+        secondStatus.setSlug("second_status");
+        secondStatus.setCreatedAt(Instant.now());
+        taskStatusRepository.save(secondStatus);
+
+        Long firstId = createTaskViaApi(token, "First", secondStatus.getSlug());
+        Long secondId = createTaskViaApi(token, "Second", secondStatus.getSlug());
+        Long thirdId = createTaskViaApi(token, "Third", secondStatus.getSlug());
+
+        TaskMoveDTO moveBetween = new TaskMoveDTO();
+        moveBetween.setAfterId(firstId);
+        mockMvc.perform(post("/api/tasks/{id}/move", thirdId)
+                .header("Authorization", "Bearer " + token)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(moveBetween)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value(secondStatus.getSlug()));
+
+        TaskMoveDTO moveIntoColumn = new TaskMoveDTO();
+        moveIntoColumn.setBeforeId(firstId);
+        mockMvc.perform(post("/api/tasks/{id}/move", testTask.getId())
+                .header("Authorization", "Bearer " + token)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(moveIntoColumn)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value(secondStatus.getSlug()));
+
+        mockMvc.perform(get("/api/tasks")
+                .param("status", secondStatus.getSlug())
+                .header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(testTask.getId()))
+                .andExpect(jsonPath("$[1].id").value(firstId))
+                .andExpect(jsonPath("$[2].id").value(thirdId))
+                .andExpect(jsonPath("$[3].id").value(secondId));
+    }
+
+    @Test
+    void testMoveTaskRebalancesExhaustedColumn() throws Exception {
+        String token = getToken(testUser.getEmail(), TEST_PASSWORD);
+        Long firstId = createTaskViaApi(token, "First", testTaskStatus.getSlug());
+        Long[] moving = {
+            createTaskViaApi(token, "Second", testTaskStatus.getSlug()),
+            createTaskViaApi(token, "Third", testTaskStatus.getSlug())
+        };
+
+        for (int i = 0; i < 20; i++) {
+            TaskMoveDTO move = new TaskMoveDTO();
+            move.setAfterId(firstId);
+            mockMvc.perform(post("/api/tasks/{id}/move", moving[i % 2])
+                    .header("Authorization", "Bearer " + token)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(move)))
+                    .andExpect(status().isOk());
+        }
+
+        mockMvc.perform(get("/api/tasks")
+                .param("status", testTaskStatus.getSlug())
+                .header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(testTask.getId()))
+                .andExpect(jsonPath("$[1].id").value(firstId))
+                .andExpect(jsonPath("$[2].id").value(moving[1]))
+                .andExpect(jsonPath("$[3].id").value(moving[0]));
+    }
+
+    @Test
+    void testMoveTaskRelativeToTaskInAnotherStatus() throws Exception {
+        String token = getToken(testUser.getEmail(), TEST_PASSWORD);
+        Long otherId = createTaskViaApi(token, "Other", testTaskStatus.getSlug());
+
+        TaskStatus secondStatus = new TaskStatus();
+        secondStatus.setName("Second Status");
+        secondStatus.setSlug("second_status");
+        secondStatus.setCreatedAt(Instant.now());
+        taskStatusRepository.save(secondStatus);
+
+        TaskMoveDTO move = new TaskMoveDTO();
+        move.setStatus(secondStatus.getSlug());
+        move.setAfterId(otherId);
+        mockMvc.perform(post("/api/tasks/{id}/move", testTask.getId())
+                .header("Authorization", "Bearer " + token)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(move)))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testMoveTaskRejectsBothNeighbours() throws Exception {
+        String token = getToken(testUser.getEmail(), TEST_PASSWORD);
+        Long firstId = createTaskViaApi(token, "First", testTaskStatus.getSlug());
+        Long secondId = createTaskViaApi(token, "Second", testTaskStatus.getSlug());
+
+        TaskMoveDTO move = new TaskMoveDTO();
+        move.setAfterId(firstId);
+        move.setBeforeId(secondId);
+        mockMvc.perform(post("/api/tasks/{id}/move", testTask.getId())
+                .header("Authorization", "Bearer " + token)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(move)))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testBulkUpdateTasksByFilter() throws Exception {
+        String token = getToken(testUser.getEmail(), TEST_PASSWORD);
+        Long secondId = createTaskViaApi(token, "Second", testTaskStatus.getSlug());
+
+        User secondUser = new User();
+        secondUser.setEmail("second@example.com");
+        secondUser.setPassword(passwordEncoder.encode(TEST_PASSWORD));
+        secondUser.setCreatedAt(Instant.now());
+        secondUser.setUpdatedAt(Instant.now());
+        userRepository.save(secondUser);
+
+        Label secondLabel = new Label();
+        secondLabel.setName("Second Label");
+        secondLabel.setCreatedAt(Instant.now());
+        labelRepository.save(secondLabel);
+
+        TaskFilterDTO filter = new TaskFilterDTO();
+        filter.setStatus(testTaskStatus.getSlug());
+
+        TaskBulkUpdateDTO bulkUpdate = new TaskBulkUpdateDTO();
+        bulkUpdate.setFilter(filter);
+        bulkUpdate.setAssignee_id(secondUser.getId());
+        bulkUpdate.setAddLabelIds(Set.of(secondLabel.getId()));
+        bulkUpdate.setRemoveLabelIds(Set.of(testLabel.getId()));
+
+        mockMvc.perform(patch("/api/tasks")
+                .header("Authorization", "Bearer " + token)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(bulkUpdate)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.affected").value(2));
+
+        assertThat(taskRepository.findAll())
+                .allMatch(task -> task.getAssignee().getId().equals(secondUser.getId()));
+        assertThat(taskRepository.findLabelRows(List.of(testTask.getId(), secondId)))
+                .hasSize(2)
+                .allMatch(row -> row[1].equals(secondLabel.getId()));
+
+        taskAuditService.flush();
+        assertThat(taskHistoryRepository.findAll())
+                .anyMatch(entry -> entry.getTaskId().equals(testTask.getId()) && entry.getField().equals("assignee"));
+        assertThat(outboxEventRepository.findAll())
+                .filteredOn(event -> event.getEventType().equals(OutboxService.TASK_UPDATED))
+                .hasSize(2)
+                .allMatch(event -> event.getPayload().contains("\"taskLabelIds\":[" + secondLabel.getId() + "]"))
+                .allMatch(event -> event.getPayload().contains("\"assignee_id\":" + secondUser.getId()))
+                .anyMatch(event -> event.getPayload().contains("\"content\":\"Test Description\""));
+    }
+
+    @Test
+    void testBulkUpdateRequiresChange() throws Exception {
+        String token = getToken(testUser.getEmail(), TEST_PASSWORD);
+        Long version = taskRepository.findById(testTask.getId()).orElseThrow().getVersion();
+
+        TaskFilterDTO filter = new TaskFilterDTO();
+        filter.setStatus(testTaskStatus.getSlug());
+        TaskBulkUpdateDTO bulkUpdate = new TaskBulkUpdateDTO();
+        bulkUpdate.setFilter(filter);
+        bulkUpdate.setAddLabelIds(Set.of());
+
+        mockMvc.perform(patch("/api/tasks")
+                .header("Authorization", "Bearer " + token)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(bulkUpdate)))
+                .andExpect(status().isBadRequest());
+
+        assertThat(taskRepository.findById(testTask.getId()).orElseThrow().getVersion()).isEqualTo(version);
+    }
+
+    @Test
+    void testBulkStatusChangeAppendsToTargetColumn() throws Exception {
+        String token = getToken(testUser.getEmail(), TEST_PASSWORD);
+        TaskStatus done = new TaskStatus();
+        done.setName("Done");
+        done.setSlug("done");
+        done.setCreatedAt(Instant.now());
+        taskStatusRepository.save(done);
+        Long existingId = createTaskViaApi(token, "Existing", "done");
+        Long firstId = createTaskViaApi(token, "First", testTaskStatus.getSlug());
+        Long secondId = createTaskViaApi(token, "Second", testTaskStatus.getSlug());
+
+        TaskFilterDTO filter = new TaskFilterDTO();
+        filter.setIds(List.of(firstId, secondId));
+        TaskBulkUpdateDTO bulkUpdate = new TaskBulkUpdateDTO();
+        bulkUpdate.setFilter(filter);
+        bulkUpdate.setStatus("done");
+
+        mockMvc.perform(patch("/api/tasks")
+                .header("Authorization", "Bearer " + token)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(bulkUpdate)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.affected").value(2));
+
+        assertThat(taskRepository.findInColumnOrder(done.getId()))
+                .extracting(Task::getId)
+                .containsExactly(existingId, firstId, secondId);
+        assertThat(taskRepository.findInColumnOrder(done.getId()))
+                .extracting(Task::getRank)
+                .doesNotHaveDuplicates();
+        assertThat(outboxEventRepository.findAll())
+                .filteredOn(event -> event.getEventType().equals(OutboxService.TASK_UPDATED))
+                .hasSize(2)
+                .allMatch(event -> event.getPayload().contains("\"taskLabelIds\""));
+    }
+
+    @Test
+    void testBulkDeleteTasksByIds() throws Exception {
+        String token = getToken(testUser.getEmail(), TEST_PASSWORD);
+        Long secondId = createTaskViaApi(token, "Second", testTaskStatus.getSlug());
+        Long thirdId = createTaskViaApi(token, "Third", testTaskStatus.getSlug());
+        taskCounterService.reconcile();
+
+        mockMvc.perform(delete("/api/tasks")
+                .param("ids", testTask.getId().toString(), secondId.toString())
+                .header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.affected").value(2));
+
+        assertThat(taskRepository.findAll())
+                .extracting(Task::getId)
+                .containsExactly(thirdId);
+        assertThat(taskRepository.findLabelRows(List.of(testTask.getId()))).isEmpty();
+        assertThat(taskCounterService.getStats().getTotal()).isEqualTo(1);
+    }
+
+    @Test
+    void testBulkOperationsRequireFilter() throws Exception {
+        String token = getToken(testUser.getEmail(), TEST_PASSWORD);
+
+        TaskBulkUpdateDTO bulkUpdate = new TaskBulkUpdateDTO();
+        bulkUpdate.setFilter(new TaskFilterDTO());
+        bulkUpdate.setStatus(testTaskStatus.getSlug());
+
+        mockMvc.perform(patch("/api/tasks")
+                .header("Authorization", "Bearer " + token)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(bulkUpdate)))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(delete("/api/tasks")
+                .header("Authorization", "Bearer " + token))
+                .andExpect(status().isBadRequest());
+
+        assertThat(taskRepository.count()).isEqualTo(1);
+    }
+
+    private Long createTaskViaApi(String token, String title, String status) throws Exception {
+        TaskCreateDTO newTask = new TaskCreateDTO();
+        newTask.setTitle(title);
+        newTask.setStatus(status);
+
+        String response = mockMvc.perform(post("/api/tasks")
+                .header("Authorization", "Bearer " + token)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(newTask)))
+                .andExpect(status().isCreated())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+        return objectMapper.readTree(response).get("id").asLong();
+    }
+}
@@ -7,6 +7,8 @@ import hexlet.code.dto.UserUpdateDTO;
 import hexlet.code.model.User;
 import hexlet.code.repository.TaskRepository;
 import hexlet.code.repository.UserRepository;
+import hexlet.code.service.JwtService;
+import io.jsonwebtoken.Claims;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -18,6 +20,9 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
 
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
@@ -43,6 +48,9 @@ public class UserAuthorizationTest {
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private JwtService jwtService;
+
     private User user1;
     private User user2;
     private final String USER1_EMAIL = "user1@example.com";
@@ -139,6 +147,33 @@ public class UserAuthorizationTest {
                 .andExpect(status().isForbidden());
     }
 
+    @Test
+    void testTokenCarriesUserIdAndRoles() throws Exception {
+        String token = getToken(USER1_EMAIL, PASSWORD);
+
+        Claims claims = jwtService.extractAllClaims(token);
+        assertThat(claims.get(JwtService.USER_ID_CLAIM, Number.class).longValue()).isEqualTo(user1.getId());
+        List<?> roles = claims.get(JwtService.ROLES_CLAIM, List.class);
+        assertThat(roles).isEqualTo(List.of("USER"));
+    }
+
+    @Test
+    void testOwnershipIsCheckedByTokenUserId() throws Exception {
+        String token = getToken(USER1_EMAIL, PASSWORD);
+        // The stored email no longer matches the token subject; the id in the token still identifies the owner
+        user1.setEmail("renamed@example.com");
+        userRepository.save(user1);
+
+        UserUpdateDTO updateDTO = new UserUpdateDTO();
+        updateDTO.setFirstName("UpdatedFirstName");
+
+        mockMvc.perform(put("/api/users/" + user1.getId())
+                .header("Authorization", "Bearer " + token)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(updateDTO)))
+                .andExpect(status().isOk());
+    }
+
     @Test
     void testUserCanCreateNewAccount() throws Exception {
         UserCreateDTO createDTO = new UserCreateDTO();
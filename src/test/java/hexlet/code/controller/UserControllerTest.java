@@ -10,6 +10,7 @@ import hexlet.code.mapper.UserMapper;
 import hexlet.code.model.User;
 import hexlet.code.repository.TaskRepository;
 import hexlet.code.repository.UserRepository;
+import hexlet.code.service.SuggestIndex;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -29,6 +30,7 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -55,6 +57,8 @@ public class UserControllerTest {
     private final String TEST_PASSWORD = "password";
     @Autowired
     private UserMapper userMapper;
+    @Autowired
+    private SuggestIndex suggestIndex;
 
     @BeforeEach
     void setUp() {
@@ -119,6 +123,42 @@ public class UserControllerTest {
                 .containsExactlyInAnyOrderElementsOf(usersFromDb);
     }
 
+    @Test
+    void testGetUsersPage() throws Exception {
+        for (int i = 0; i < 4; i++) {
+            User user = new User();
+            user.setEmail("page" + i + "@example.com");
+            user.setCreatedAt(Instant.now());
+            user.setUpdatedAt(Instant.now());
+            userRepository.save(user);
+        }
+        String token = getToken(testUser.getEmail(), TEST_PASSWORD);
+
+        mockMvc.perform(get("/api/users")
+                        .param("_start", "1")
+                        .param("_end", "3")
+                        .param("_sort", "email")
+                        .param("_order", "DESC")
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Total-Count", "5"))
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].email").value("page3@example.com"))
+                .andExpect(jsonPath("$[1].email").value("page2@example.com"));
+
+        mockMvc.perform(get("/api/users")
+                        .param("id", String.valueOf(testUser.getId()))
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Total-Count", "1"))
+                .andExpect(jsonPath("$[0].email").value(testUser.getEmail()));
+
+        mockMvc.perform(get("/api/users")
+                        .param("_sort", "password")
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     void testGetUserById() throws Exception {
         String token = getToken(testUser.getEmail(), TEST_PASSWORD);
@@ -172,6 +212,47 @@ public class UserControllerTest {
         assertThat(userFromResponse).isEqualTo(expectedUser);
     }
 
+    @Test
+    void testCreateUserWithIdempotencyKey() throws Exception {
+        UserCreateDTO newUser = new UserCreateDTO();
+        newUser.setEmail("idempotent@example.com");
+        newUser.setFirstName("Retried");
+        newUser.setLastName("User");
+        newUser.setPassword("newpassword");
+
+        String firstResponse = mockMvc.perform(post("/api/users")
+                .header("Idempotency-Key", "create-user-1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(newUser)))
+                .andExpect(status().isCreated())
+                .andExpect(header().string("Idempotent-Replayed", "false"))
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        String secondResponse = mockMvc.perform(post("/api/users")
+                .header("Idempotency-Key", "create-user-1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(newUser)))
+                .andExpect(status().isCreated())
+                .andExpect(header().string("Idempotent-Replayed", "true"))
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        assertThat(secondResponse).isEqualTo(firstResponse);
+        assertThat(userRepository.findAll())
+                .filteredOn(user -> user.getEmail().equals(newUser.getEmail()))
+                .hasSize(1);
+
+        newUser.setEmail("other@example.com");
+        mockMvc.perform(post("/api/users")
+                .header("Idempotency-Key", "create-user-1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(newUser)))
+                .andExpect(status().isConflict());
+    }
+
     @Test
     void testUpdateUser() throws Exception {
         UserUpdateDTO updateUser = new UserUpdateDTO();
@@ -202,6 +283,36 @@ public class UserControllerTest {
         assertThat(userFromResponse).isEqualTo(expectedUser);
     }
 
+    @Test
+    void testSuggestUsers() throws Exception {
+        suggestIndex.rebuild();
+        String token = getToken(testUser.getEmail(), TEST_PASSWORD);
+
+        mockMvc.perform(get("/api/users/suggest")
+                .param("q", "tes")
+                .header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].id").value(testUser.getId()))
+                .andExpect(jsonPath("$[0].email").value(testUser.getEmail()))
+                .andExpect(jsonPath("$[0].createdAt").doesNotExist());
+
+        UserUpdateDTO updateUser = new UserUpdateDTO();
+        updateUser.setFirstName("Zed");
+        mockMvc.perform(put("/api/users/{id}", testUser.getId())
+                .header("Authorization", "Bearer " + token)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(updateUser)))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/users/suggest")
+                .param("q", "zed u")
+                .header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(testUser.getId()))
+                .andExpect(jsonPath("$[0].firstName").value("Zed"));
+    }
+
     @Test
     void testDeleteUser() throws Exception {
         String token = getToken(testUser.getEmail(), TEST_PASSWORD);
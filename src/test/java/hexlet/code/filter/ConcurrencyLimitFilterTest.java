@@ -0,0 +1,50 @@
+package hexlet.code.filter;
+
+import hexlet.code.service.ConcurrencyLimitService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@TestPropertySource(properties = {
+    "concurrency-limit.enabled=true",
+    "concurrency-limit.initial-limit=1",
+    "concurrency-limit.min-limit=1",
+    "concurrency-limit.max-limit=1"
+})
+public class ConcurrencyLimitFilterTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ConcurrencyLimitService concurrencyLimitService;
+
+    @Test
+    void testShedRequestGetsServiceUnavailable() throws Exception {
+        ConcurrencyLimitService.Permit permit =
+                concurrencyLimitService.tryAcquire(ConcurrencyLimitService.DEFAULT_GROUP);
+        assertThat(permit).isNotNull();
+        try {
+            mockMvc.perform(get("/api/task_statuses"))
+                    .andExpect(status().isServiceUnavailable())
+                    .andExpect(header().string("Retry-After", "1"))
+                    .andExpect(content().string("Server is busy"));
+        } finally {
+            permit.abandon();
+        }
+
+        mockMvc.perform(get("/api/task_statuses"))
+                .andExpect(status().isOk());
+    }
+}
@@ -0,0 +1,135 @@
+package hexlet.code.filter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import hexlet.code.dto.LoginRequestDTO;
+import hexlet.code.model.User;
+import hexlet.code.repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@TestPropertySource(properties = {
+    "rate-limit.enabled=true",
+    "rate-limit.api.capacity=3",
+    "rate-limit.api.refill-interval=PT1H",
+    "rate-limit.login.capacity=2",
+    "rate-limit.login.refill-interval=PT1H"
+})
+public class RateLimitFilterTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private static final String TEST_PASSWORD = "password";
+
+    @BeforeEach
+    void setUp() {
+        for (String email : new String[] {"first@example.com", "second@example.com"}) {
+            if (userRepository.findByEmail(email).isEmpty()) {
+                User user = new User();
+                user.setEmail(email);
+                user.setPassword(passwordEncoder.encode(TEST_PASSWORD));
+                user.setCreatedAt(Instant.now());
+                user.setUpdatedAt(Instant.now());
+                userRepository.save(user);
+            }
+        }
+    }
+
+    @Test
+    void testLoginIsLimitedPerIp() throws Exception {
+        for (int i = 0; i < 2; i++) {
+            login("first@example.com", "wrong", "10.0.0.1")
+                    .andExpect(status().isUnauthorized());
+        }
+
+        login("first@example.com", "wrong", "10.0.0.1")
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().exists("Retry-After"));
+
+        login("first@example.com", TEST_PASSWORD, "10.0.0.2")
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void testApiIsLimitedPerUser() throws Exception {
+        String firstToken = token("first@example.com", "10.0.1.1");
+        String secondToken = token("second@example.com", "10.0.1.2");
+
+        for (int i = 0; i < 3; i++) {
+            mockMvc.perform(get("/api/labels").header("Authorization", "Bearer " + firstToken))
+                    .andExpect(status().isOk());
+        }
+
+        mockMvc.perform(get("/api/labels").header("Authorization", "Bearer " + firstToken))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().exists("Retry-After"));
+
+        mockMvc.perform(get("/api/labels").header("Authorization", "Bearer " + secondToken))
+                .andExpect(status().isOk());
+
+        Counter rejected = meterRegistry.get("ratelimit.rejected").tags("policy", "api").counter();
+        assertThat(rejected.getId().getTags()).extracting(Tag::getKey).containsExactlyInAnyOrder("policy", "key_type");
+        assertThat(rejected.getId().getTag("key_type")).isEqualTo("user");
+        assertThat(rejected.count()).isPositive();
+    }
+
+    private String token(String email, String remoteAddress) throws Exception {
+        return login(email, TEST_PASSWORD, remoteAddress)
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+    }
+
+    private ResultActions login(String email, String password, String remoteAddress) throws Exception {
+        LoginRequestDTO loginRequest = new LoginRequestDTO();
+        loginRequest.setUsername(email);
+        loginRequest.setPassword(password);
+
+        return mockMvc.perform(post("/api/login")
+                .with(remoteAddress(remoteAddress))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(loginRequest)));
+    }
+
+    private static RequestPostProcessor remoteAddress(String remoteAddress) {
+        return request -> {
+            request.setRemoteAddr(remoteAddress);
+            return request;
+        };
+    }
+}
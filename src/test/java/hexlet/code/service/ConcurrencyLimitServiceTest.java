@@ -0,0 +1,60 @@
+package hexlet.code.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ConcurrencyLimitServiceTest {
+
+    private static final String GROUP = ConcurrencyLimitService.TASK_READ_GROUP;
+
+    @Test
+    void testShedsAboveLimit() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        ConcurrencyLimitService service = new ConcurrencyLimitService(meterRegistry, 2, 2, 2, 1.5, 600, 0.2);
+
+        ConcurrencyLimitService.Permit first = service.tryAcquire(GROUP);
+        ConcurrencyLimitService.Permit second = service.tryAcquire(GROUP);
+        assertThat(first).isNotNull();
+        assertThat(second).isNotNull();
+        assertThat(service.tryAcquire(GROUP)).isNull();
+        assertThat(service.tryAcquire(ConcurrencyLimitService.TASK_WRITE_GROUP)).isNotNull();
+
+        first.abandon();
+        assertThat(service.inFlight(GROUP)).isEqualTo(1);
+        assertThat(service.tryAcquire(GROUP)).isNotNull();
+        assertThat(meterRegistry.get("concurrency.shed").tag("group", GROUP).counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void testLimitFollowsLatency() throws InterruptedException {
+        ConcurrencyLimitService service =
+                new ConcurrencyLimitService(new SimpleMeterRegistry(), 10, 2, 100, 1.5, 600, 0.2);
+
+        for (int i = 0; i < 20; i++) {
+            runSaturated(service, 5);
+        }
+        int grown = service.limit(GROUP);
+        assertThat(grown).isGreaterThan(10);
+
+        for (int i = 0; i < 3; i++) {
+            runSaturated(service, 50);
+        }
+        assertThat(service.limit(GROUP)).isLessThan(grown);
+        assertThat(service.inFlight(GROUP)).isZero();
+    }
+
+    private static void runSaturated(ConcurrencyLimitService service, long millis) throws InterruptedException {
+        List<ConcurrencyLimitService.Permit> permits = new ArrayList<>();
+        ConcurrencyLimitService.Permit permit;
+        while ((permit = service.tryAcquire(GROUP)) != null) {
+            permits.add(permit);
+        }
+        Thread.sleep(millis);
+        permits.forEach(ConcurrencyLimitService.Permit::complete);
+    }
+}
@@ -0,0 +1,95 @@
+package hexlet.code.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import hexlet.code.repository.IdempotencyRecordRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class IdempotencyServiceTest {
+
+    private static final int MAX_ENTRIES = 3;
+
+    private final IdempotencyService service = new IdempotencyService(null, new ObjectMapper(),
+            new SimpleMeterRegistry(), MAX_ENTRIES, Duration.ofHours(1), 5000, false);
+
+    @Test
+    void testInFlightEntryIsNotEvicted() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger runs = new AtomicInteger();
+        CompletableFuture<IdempotencyService.Result<String>> original = CompletableFuture.supplyAsync(() ->
+                service.execute("slow", "create", "request", String.class, () -> {
+                    runs.incrementAndGet();
+                    started.countDown();
+                    await(release);
+                    return "created";
+                }));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+        for (int i = 0; i < MAX_ENTRIES * 2; i++) {
+            String value = "value-" + i;
+            service.execute("key-" + i, "create", "request", String.class, () -> value);
+        }
+        assertThat(service.size()).isEqualTo(MAX_ENTRIES);
+
+        CompletableFuture<IdempotencyService.Result<String>> retry = CompletableFuture.supplyAsync(() ->
+                service.execute("slow", "create", "request", String.class, () -> {
+                    runs.incrementAndGet();
+                    return "created again";
+                }));
+        release.countDown();
+
+        assertThat(original.get(5, TimeUnit.SECONDS).replayed()).isFalse();
+        assertThat(retry.get(5, TimeUnit.SECONDS)).isEqualTo(new IdempotencyService.Result<>("created", true));
+        assertThat(runs).hasValue(1);
+    }
+
+    @Test
+    void testEvictsLeastRecentlyUsed() {
+        service.execute("first", "create", "request", String.class, () -> "first");
+        service.execute("second", "create", "request", String.class, () -> "second");
+        service.execute("third", "create", "request", String.class, () -> "third");
+        service.execute("first", "create", "request", String.class, () -> "unused");
+        service.execute("fourth", "create", "request", String.class, () -> "fourth");
+
+        assertThat(service.execute("first", "create", "request", String.class, () -> "again").replayed()).isTrue();
+        assertThat(service.execute("second", "create", "request", String.class, () -> "again").replayed())
+                .isFalse();
+    }
+
+    @Test
+    void testFailedLookupOfStoredResponseIsNotRemembered() {
+        IdempotencyRecordRepository unavailable = (IdempotencyRecordRepository) Proxy.newProxyInstance(
+                getClass().getClassLoader(), new Class<?>[] {IdempotencyRecordRepository.class},
+                (proxy, method, args) -> {
+                    throw new DataAccessResourceFailureException("database is down");
+                });
+        IdempotencyService persistent = new IdempotencyService(unavailable, new ObjectMapper(),
+                new SimpleMeterRegistry(), MAX_ENTRIES, Duration.ofHours(1), 5000, true);
+
+        for (int i = 0; i < 2; i++) {
+            assertThatThrownBy(() -> persistent.execute("key", "create", "request", String.class, () -> "created"))
+                    .isInstanceOf(DataAccessResourceFailureException.class);
+        }
+        assertThat(persistent.size()).isZero();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package hexlet.code.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import hexlet.code.model.OutboxEvent;
+import hexlet.code.outbox.TaskDomainEvent;
+import hexlet.code.repository.OutboxEventRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.event.EventListener;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@TestPropertySource(properties = {
+    // A database of its own, so the relays of other cached test contexts never pick up these events
+    "spring.datasource.url=jdbc:h2:mem:outboxrelaytest",
+    "outbox.relay.interval-ms=3600000",
+    "outbox.relay.max-attempts=3",
+    "outbox.relay.retry-backoff=PT1H"
+})
+public class OutboxRelayTest {
+
+    private static final long POISON_TASK_ID = 1L;
+    private static final long HEALTHY_TASK_ID = 2L;
+
+    @Autowired
+    private OutboxRelay outboxRelay;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @TestConfiguration
+    static class FailingListener {
+        @Bean
+        Object poisonEventListener() {
+            return new Object() {
+                @EventListener
+                public void onEvent(TaskDomainEvent event) {
+                    if (event.taskId() == POISON_TASK_ID && "POISON".equals(event.eventType())) {
+                        throw new IllegalStateException("Cannot handle event " + event.eventId());
+                    }
+                }
+            };
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        outboxEventRepository.deleteAll();
+    }
+
+    @Test
+    void testPoisonEventIsRetriedWithBackoffAndThenParked() {
+        OutboxEvent poison = save(POISON_TASK_ID, "POISON");
+        OutboxEvent queuedBehind = save(POISON_TASK_ID, OutboxService.TASK_UPDATED);
+        OutboxEvent healthy = save(HEALTHY_TASK_ID, OutboxService.TASK_UPDATED);
+
+        outboxRelay.relay();
+        assertThat(reload(healthy).getPublishedAt()).isNotNull();
+        assertThat(reload(poison).getAttempts()).isEqualTo(1);
+        assertThat(reload(poison).getNextAttemptAt()).isAfter(Instant.now());
+
+        // Not due yet: neither the poison event nor the event queued behind it is relayed
+        outboxRelay.relay();
+        assertThat(reload(poison).getAttempts()).isEqualTo(1);
+        assertThat(reload(queuedBehind).getPublishedAt()).isNull();
+
+        makeDue(poison);
+        outboxRelay.relay();
+        assertThat(reload(poison).getAttempts()).isEqualTo(2);
+        assertThat(reload(poison).getFailedAt()).isNull();
+
+        makeDue(poison);
+        outboxRelay.relay();
+        assertThat(reload(poison).getAttempts()).isEqualTo(3);
+        assertThat(reload(poison).getFailedAt()).isNotNull();
+
+        outboxRelay.relay();
+        assertThat(reload(poison).getAttempts()).isEqualTo(3);
+        assertThat(reload(poison).getPublishedAt()).isNull();
+        assertThat(reload(queuedBehind).getPublishedAt()).isNotNull();
+    }
+
+    @Test
+    void testLargePayloadIsStoredAndSerializedAsJson() throws Exception {
+        String content = "x".repeat(20_000);
+        OutboxEvent event = save(HEALTHY_TASK_ID, OutboxService.TASK_UPDATED, "{\"content\":\"" + content + "\"}");
+
+        outboxRelay.relay();
+        assertThat(reload(event).getPublishedAt()).isNotNull();
+
+        TaskDomainEvent domainEvent = new TaskDomainEvent(
+                event.getId(), event.getEventType(), HEALTHY_TASK_ID, reload(event).getPayload(), Instant.now());
+        JsonNode json = objectMapper.readTree(objectMapper.writeValueAsString(domainEvent));
+        assertThat(json.get("payload").isObject()).isTrue();
+        assertThat(json.get("payload").get("content").asText()).isEqualTo(content);
+    }
+
+    private OutboxEvent save(long taskId, String eventType) {
+        return save(taskId, eventType, "{}");
+    }
+
+    private OutboxEvent save(long taskId, String eventType, String payload) {
+        OutboxEvent event = new OutboxEvent();
+        event.setAggregateType(OutboxService.TASK_AGGREGATE);
+        event.setAggregateId(taskId);
+        event.setEventType(eventType);
+        event.setPayload(payload);
+        event.setCreatedAt(Instant.now());
+        return outboxEventRepository.save(event);
+    }
+
+    private void makeDue(OutboxEvent event) {
+        OutboxEvent current = reload(event);
+        current.setNextAttemptAt(Instant.now().minusSeconds(1));
+        outboxEventRepository.save(current);
+    }
+
+    private OutboxEvent reload(OutboxEvent event) {
+        return outboxEventRepository.findById(event.getId()).orElseThrow();
+    }
+}
@@ -0,0 +1,38 @@
+package hexlet.code.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class PrefixTrieTest {
+
+    @Test
+    void testFindsShortestCompletionsFirst() {
+        PrefixTrie<String> trie = new PrefixTrie<>();
+        trie.put(1, "johnathan", List.of("Johnathan"));
+        trie.put(2, "john", List.of("John", "john@example.com"));
+        trie.put(3, "joe", List.of("Joe"));
+        trie.put(4, "mary", List.of("Mary"));
+
+        assertThat(trie.find("JO", 10)).containsExactly("joe", "john", "johnathan");
+        assertThat(trie.find("jo", 2)).containsExactly("joe", "john");
+        assertThat(trie.find("john@", 10)).containsExactly("john");
+        assertThat(trie.find("x", 10)).isEmpty();
+    }
+
+    @Test
+    void testPutReplacesAndRemoveDropsTerms() {
+        PrefixTrie<String> trie = new PrefixTrie<>();
+        trie.put(1, "bug", List.of("bug"));
+        trie.put(1, "defect", List.of("defect"));
+
+        assertThat(trie.find("bu", 10)).isEmpty();
+        assertThat(trie.find("de", 10)).containsExactly("defect");
+
+        trie.remove(1);
+        assertThat(trie.find("", 10)).isEmpty();
+        assertThat(trie.size()).isZero();
+    }
+}
@@ -0,0 +1,212 @@
+package hexlet.code.service;
+
+import hexlet.code.dto.TaskCreateDTO;
+import hexlet.code.dto.TaskDTO;
+import hexlet.code.dto.TaskStatusDTO;
+import hexlet.code.dto.TaskUpdateDTO;
+import hexlet.code.model.Label;
+import hexlet.code.model.Task;
+import hexlet.code.model.TaskStatus;
+import hexlet.code.model.User;
+import hexlet.code.repository.LabelRepository;
+import hexlet.code.repository.TaskRepository;
+import hexlet.code.repository.TaskStatusRepository;
+import hexlet.code.repository.UserRepository;
+import hexlet.code.specification.TaskSpecification;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@TestPropertySource(properties = "tasks.filter-index.enabled=true")
+public class TaskFilterIndexTest {
+
+    @Autowired
+    private TaskFilterIndex taskFilterIndex;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private TaskStatusRepository taskStatusRepository;
+
+    @Autowired
+    private LabelRepository labelRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TaskStatusService taskStatusService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private TaskStatus todo;
+    private TaskStatus done;
+    private Label bug;
+    private Label feature;
+    private User assignee;
+    private final List<Long> taskIds = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        todo = status("index_todo");
+        done = status("index_done");
+        bug = label("index bug");
+        feature = label("index feature");
+
+        assignee = new User();
+        assignee.setEmail("index-assignee@example.com");
+        assignee.setCreatedAt(Instant.now());
+        assignee.setUpdatedAt(Instant.now());
+        userRepository.save(assignee);
+
+        for (int i = 0; i < 12; i++) {
+            TaskCreateDTO dto = new TaskCreateDTO();
+            dto.setTitle((i % 3 == 0 ? "Fix " : "Build ") + "index task " + i);
+            dto.setStatus(i % 2 == 0 ? todo.getSlug() : done.getSlug());
+            dto.setAssignee_id(i % 4 == 0 ? assignee.getId() : null);
+            dto.setTaskLabelIds(i % 3 == 0 ? List.of(bug.getId()) : List.of(feature.getId(), bug.getId()));
+            taskIds.add(taskService.createTask(dto).getId());
+        }
+        taskFilterIndex.rebuild();
+    }
+
+    @AfterEach
+    void tearDown() {
+        taskIds.forEach(taskService::deleteTask);
+        labelRepository.deleteAll(List.of(bug, feature));
+        taskStatusRepository.deleteAll(List.of(todo, done));
+        userRepository.delete(assignee);
+    }
+
+    @Test
+    void testIndexMatchesSqlFiltering() {
+        assertSameAsSql(null, null, null, null);
+        assertSameAsSql(null, null, todo.getSlug(), null);
+        assertSameAsSql(null, assignee.getId(), null, bug.getId());
+        assertSameAsSql("fix", null, todo.getSlug(), bug.getId());
+        assertSameAsSql(null, null, done.getSlug(), feature.getId());
+        assertSameAsSql(null, null, "missing_status", null);
+    }
+
+    @Test
+    void testIndexFollowsWrites() {
+        Long taskId = taskIds.get(1);
+        TaskUpdateDTO update = new TaskUpdateDTO();
+        update.setStatus(todo.getSlug());
+        update.setLabelIds(Set.of(feature.getId()));
+        taskService.updateTask(taskId, update, null);
+
+        assertThat(ids(taskService.getFilteredTasks(null, null, todo.getSlug(), feature.getId()).value()))
+                .contains(taskId);
+        assertSameAsSql(null, null, todo.getSlug(), bug.getId());
+
+        taskService.deleteTask(taskIds.get(0));
+        assertSameAsSql(null, assignee.getId(), null, null);
+    }
+
+    @Test
+    void testUnrankedTasksSortFirstOnBothPaths() {
+        Task unranked = new Task();
+        unranked.setName("Unranked index task");
+        unranked.setTaskStatus(todo);
+        unranked.setCreatedAt(Instant.now());
+        taskIds.add(taskRepository.save(unranked).getId());
+        taskFilterIndex.rebuild();
+
+        assertSameAsSql(null, null, todo.getSlug(), null);
+        assertThat(taskFilterIndex.find(null, null, todo.getSlug(), null).orElseThrow().get(0))
+                .isEqualTo(unranked.getId());
+    }
+
+    @Test
+    void testLikeWildcardsInTitleMatchLiterally() {
+        Long percent = createTask("Index 50% done");
+        createTask("Index 500 done");
+        Long underscore = createTask("Index snake_case");
+
+        assertThat(taskFilterIndex.find("50%", null, todo.getSlug(), null)).contains(List.of(percent));
+        assertThat(taskFilterIndex.find("e_c", null, todo.getSlug(), null)).contains(List.of(underscore));
+        assertThat(taskFilterIndex.find("0_", null, todo.getSlug(), null)).contains(List.of());
+        assertSameAsSql("50%", null, todo.getSlug(), null);
+        assertSameAsSql("e_c", null, todo.getSlug(), null);
+        assertSameAsSql("0_", null, todo.getSlug(), null);
+        assertSameAsSql("\\", null, todo.getSlug(), null);
+    }
+
+    @Test
+    void testRolledBackStatusRenameDoesNotReachIndex() {
+        TaskStatusDTO rename = new TaskStatusDTO();
+        rename.setSlug("index_renamed");
+
+        transactionTemplate.executeWithoutResult(tx -> {
+            taskStatusService.updateTaskStatus(todo.getId(), rename, null);
+            tx.setRollbackOnly();
+        });
+
+        assertThat(taskFilterIndex.find(null, null, "index_renamed", null)).contains(List.of());
+        assertSameAsSql(null, null, todo.getSlug(), null);
+    }
+
+    private void assertSameAsSql(String titleCont, Long assigneeId, String status, Long labelId) {
+        List<Long> expected = taskRepository.findAll(TaskSpecification.filter(titleCont, assigneeId, status, labelId))
+                .stream()
+                .sorted(Comparator.comparing((Task task) -> task.getTaskStatus().getId())
+                        .thenComparing(Task::getRank, Comparator.nullsFirst(Comparator.naturalOrder()))
+                        .thenComparing(Task::getId))
+                .map(Task::getId)
+                .toList();
+
+        assertThat(taskFilterIndex.find(titleCont, assigneeId, status, labelId)).contains(expected);
+        assertThat(taskRepository.findFiltered(titleCont, assigneeId, status, labelId).stream()
+                .map(Task::getId)
+                .toList()).isEqualTo(expected);
+        assertThat(ids(taskService.getFilteredTasks(titleCont, assigneeId, status, labelId).value()))
+                .isEqualTo(expected);
+    }
+
+    private Long createTask(String title) {
+        TaskCreateDTO dto = new TaskCreateDTO();
+        dto.setTitle(title);
+        dto.setStatus(todo.getSlug());
+        Long id = taskService.createTask(dto).getId();
+        taskIds.add(id);
+        return id;
+    }
+
+    private static List<Long> ids(List<TaskDTO> tasks) {
+        return tasks.stream().map(TaskDTO::getId).toList();
+    }
+
+    private TaskStatus status(String slug) {
+        TaskStatus status = new TaskStatus();
+        status.setName(slug);
+        status.setSlug(slug);
+        status.setCreatedAt(Instant.now());
+        return taskStatusRepository.save(status);
+    }
+
+    private Label label(String name) {
+        Label label = new Label();
+        label.setName(name);
+        label.setCreatedAt(Instant.now());
+        return labelRepository.save(label);
+    }
+}
@@ -0,0 +1,130 @@
+package hexlet.code.service;
+
+import hexlet.code.dto.TaskDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.QueryTimeoutException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class TaskQueryCoalescerTest {
+
+    @Test
+    void testConcurrentIdenticalQueriesShareOneExecution() throws Exception {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        TaskQueryCoalescer coalescer = new TaskQueryCoalescer(meterRegistry, 0, 0, 100, 1);
+        AtomicInteger executions = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newFixedThreadPool(5);
+        try {
+            List<Future<TaskQueryCoalescer.Result<List<TaskDTO>>>> results = new ArrayList<>();
+            for (int i = 0; i < 5; i++) {
+                results.add(executor.submit(() -> coalescer.execute(" ", 1L, "draft", null, () -> {
+                    executions.incrementAndGet();
+                    await(release);
+                    return List.of(new TaskDTO());
+                })));
+            }
+            while (meterRegistry.counter("tasks.query.coalesced").count() < 4) {
+                Thread.sleep(10);
+            }
+            release.countDown();
+
+            for (Future<TaskQueryCoalescer.Result<List<TaskDTO>>> result : results) {
+                assertThat(result.get(5, TimeUnit.SECONDS).value()).hasSize(1);
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertThat(executions).hasValue(1);
+        assertThat(meterRegistry.counter("tasks.query.executed").count()).isEqualTo(1);
+    }
+
+    @Test
+    void testCachedResultIsDroppedOnInvalidate() {
+        TaskQueryCoalescer coalescer = new TaskQueryCoalescer(new SimpleMeterRegistry(), 60_000, 0, 100, 1);
+        AtomicInteger executions = new AtomicInteger();
+
+        coalescer.execute("Task", null, null, null, () -> load(executions));
+        coalescer.execute("task", null, null, null, () -> load(executions));
+        assertThat(executions).hasValue(1);
+
+        coalescer.invalidate();
+        coalescer.execute("task", null, null, null, () -> load(executions));
+        assertThat(executions).hasValue(2);
+    }
+
+    @Test
+    void testStaleResultIsServedWhileOneRefreshRuns() throws Exception {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        TaskQueryCoalescer coalescer = new TaskQueryCoalescer(meterRegistry, 1, 60_000, 100, 1);
+        AtomicInteger executions = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+
+        TaskQueryCoalescer.Result<List<TaskDTO>> first =
+                coalescer.execute("task", null, null, null, () -> load(executions));
+        assertThat(first.staleAgeMs()).isNull();
+        Thread.sleep(5);
+
+        for (int i = 0; i < 3; i++) {
+            TaskQueryCoalescer.Result<List<TaskDTO>> stale = coalescer.execute("task", null, null, null, () -> {
+                await(release);
+                return load(executions);
+            });
+            assertThat(stale.value()).isSameAs(first.value());
+            assertThat(stale.staleAgeMs()).isGreaterThanOrEqualTo(5);
+        }
+        release.countDown();
+
+        while (meterRegistry.counter("tasks.query.executed").count() < 2) {
+            Thread.sleep(10);
+        }
+        assertThat(executions).hasValue(2);
+        coalescer.shutdown();
+    }
+
+    @Test
+    void testStaleResultIsServedOnDatabaseTimeout() {
+        TaskQueryCoalescer coalescer = new TaskQueryCoalescer(new SimpleMeterRegistry(), 60_000, 60_000, 100, 1);
+        AtomicInteger executions = new AtomicInteger();
+
+        List<TaskDTO> first = coalescer.execute("task", null, null, null, () -> load(executions)).value();
+        coalescer.invalidate();
+
+        TaskQueryCoalescer.Result<List<TaskDTO>> fallback = coalescer.execute("task", null, null, null, () -> {
+            throw new QueryTimeoutException("timed out");
+        });
+        assertThat(fallback.value()).isSameAs(first);
+        assertThat(fallback.staleAgeMs()).isNotNull();
+
+        assertThatThrownBy(() -> coalescer.execute("task", null, null, null, () -> {
+            throw new IllegalStateException("broken");
+        })).isInstanceOf(IllegalStateException.class);
+        coalescer.shutdown();
+    }
+
+    private static List<TaskDTO> load(AtomicInteger executions) {
+        executions.incrementAndGet();
+        return List.of(new TaskDTO());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}